@@ -6,15 +6,13 @@
 package net.neoforged.neoforge.attachment;
 
 import com.mojang.logging.LogUtils;
-import java.util.IdentityHashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Objects;
 import java.util.Optional;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.Tag;
 import net.minecraft.resources.ResourceLocation;
-import net.neoforged.fml.loading.FMLLoader;
 import net.neoforged.neoforge.registries.NeoForgeRegistries;
 import org.jetbrains.annotations.MustBeInvokedByOverriders;
 import org.jetbrains.annotations.Nullable;
@@ -26,29 +24,77 @@ import org.slf4j.Logger;
  */
 public abstract class AttachmentHolder implements IAttachmentHolder {
     public static final String ATTACHMENTS_NBT_KEY = "neoforge:attachments";
-    private static final boolean IN_DEV = !FMLLoader.isProduction();
     private static final Logger LOGGER = LogUtils.getLogger();
 
     private void validateAttachmentType(AttachmentType<?> type) {
         Objects.requireNonNull(type);
-        if (!IN_DEV) return;
-
-        if (!NeoForgeRegistries.ATTACHMENT_TYPES.containsValue(type)) {
+        if (type.index < 0) {
             throw new IllegalArgumentException("Data attachment type with default value " + type.defaultValueSupplier.apply(getExposedHolder()) + " must be registered!");
         }
     }
 
+    /**
+     * Attachments indexed by {@link AttachmentType#index}, or {@code null} if no attachment was ever stored.
+     * The array is only as long as the highest index stored so far requires.
+     */
     @Nullable
-    Map<AttachmentType<?>, Object> attachments = null;
+    Object[] attachments = null;
 
     /**
-     * Create the attachment map if it does not yet exist, or return the current map.
+     * Serialized form of the attachments with {@link AttachmentType#trackChanges}, indexed like {@link #attachments}.
+     * A {@code null} entry means that the attachment must be serialized again.
      */
-    final Map<AttachmentType<?>, Object> getAttachmentMap() {
+    @Nullable
+    private Tag[] serializedAttachments = null;
+
+    private void markSerializedDirty(int index) {
+        var serialized = this.serializedAttachments;
+        if (serialized != null && index < serialized.length) {
+            serialized[index] = null;
+        }
+    }
+
+    private void cacheSerialized(int index, Tag tag) {
+        if (serializedAttachments == null) {
+            serializedAttachments = new Tag[attachments.length];
+        } else if (index >= serializedAttachments.length) {
+            serializedAttachments = Arrays.copyOf(serializedAttachments, attachments.length);
+        }
+        serializedAttachments[index] = tag;
+    }
+
+    @Nullable
+    final Object getAttachment(AttachmentType<?> type) {
+        var attachments = this.attachments;
+        int index = type.index;
+        return attachments != null && index < attachments.length ? attachments[index] : null;
+    }
+
+    @Nullable
+    final Object putAttachment(AttachmentType<?> type, Object value) {
+        int index = type.index;
         if (attachments == null) {
-            attachments = new IdentityHashMap<>(4);
+            attachments = new Object[index + 1];
+        } else if (index >= attachments.length) {
+            attachments = Arrays.copyOf(attachments, index + 1);
+        }
+        Object previous = attachments[index];
+        attachments[index] = value;
+        markSerializedDirty(index);
+        return previous;
+    }
+
+    @Nullable
+    final Object removeAttachment(AttachmentType<?> type) {
+        var attachments = this.attachments;
+        int index = type.index;
+        if (attachments == null || index >= attachments.length) {
+            return null;
         }
-        return attachments;
+        Object previous = attachments[index];
+        attachments[index] = null;
+        markSerializedDirty(index);
+        return previous;
     }
 
     /**
@@ -62,22 +108,30 @@ public abstract class AttachmentHolder implements IAttachmentHolder {
 
     @Override
     public final boolean hasAttachments() {
-        return attachments != null && !attachments.isEmpty();
+        if (attachments == null) {
+            return false;
+        }
+        for (Object attachment : attachments) {
+            if (attachment != null) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public final boolean hasData(AttachmentType<?> type) {
         validateAttachmentType(type);
-        return attachments != null && attachments.containsKey(type);
+        return getAttachment(type) != null;
     }
 
     @Override
     public final <T> T getData(AttachmentType<T> type) {
         validateAttachmentType(type);
-        T ret = (T) getAttachmentMap().get(type);
+        T ret = (T) getAttachment(type);
         if (ret == null) {
             ret = type.defaultValueSupplier.apply(getExposedHolder());
-            attachments.put(type, ret);
+            putAttachment(type, ret);
         }
         return ret;
     }
@@ -85,10 +139,7 @@ public abstract class AttachmentHolder implements IAttachmentHolder {
     @Override
     public <T> Optional<T> getExistingData(AttachmentType<T> type) {
         validateAttachmentType(type);
-        if (attachments == null) {
-            return Optional.empty();
-        }
-        return Optional.ofNullable((T) this.attachments.get(type));
+        return Optional.ofNullable((T) getAttachment(type));
     }
 
     @Override
@@ -96,17 +147,21 @@ public abstract class AttachmentHolder implements IAttachmentHolder {
     public <T> @Nullable T setData(AttachmentType<T> type, T data) {
         validateAttachmentType(type);
         Objects.requireNonNull(data);
-        return (T) getAttachmentMap().put(type, data);
+        return (T) putAttachment(type, data);
     }
 
     @Override
     @MustBeInvokedByOverriders
     public <T> @Nullable T removeData(AttachmentType<T> type) {
         validateAttachmentType(type);
-        if (attachments == null) {
-            return null;
-        }
-        return (T) attachments.remove(type);
+        return (T) removeAttachment(type);
+    }
+
+    @Override
+    @MustBeInvokedByOverriders
+    public <T> void markDirty(AttachmentType<T> type) {
+        validateAttachmentType(type);
+        markSerializedDirty(type.index);
     }
 
     /**
@@ -119,10 +174,23 @@ public abstract class AttachmentHolder implements IAttachmentHolder {
             return null;
         }
         CompoundTag tag = null;
-        for (var entry : attachments.entrySet()) {
-            var type = entry.getKey();
+        for (int i = 0; i < attachments.length; ++i) {
+            Object attachment = attachments[i];
+            if (attachment == null) {
+                continue;
+            }
+            var type = AttachmentInternals.getTypeByIndex(i);
             if (type.serializer != null) {
-                Tag serialized = ((IAttachmentSerializer<?, Object>) type.serializer).write(entry.getValue(), provider);
+                Tag serialized = serializedAttachments != null && i < serializedAttachments.length ? serializedAttachments[i] : null;
+                if (serialized != null) {
+                    // Unchanged since it was last serialized. Copy since the returned tag might be modified.
+                    serialized = serialized.copy();
+                } else {
+                    serialized = ((IAttachmentSerializer<?, Object>) type.serializer).write(attachment, provider);
+                    if (serialized != null && type.trackChanges) {
+                        cacheSerialized(i, serialized.copy());
+                    }
+                }
                 if (serialized != null) {
                     if (tag == null)
                         tag = new CompoundTag();
@@ -152,7 +220,12 @@ public abstract class AttachmentHolder implements IAttachmentHolder {
             }
 
             try {
-                getAttachmentMap().put(type, ((IAttachmentSerializer<Tag, ?>) type.serializer).read(getExposedHolder(), tag.get(key), provider));
+                Tag serialized = tag.get(key);
+                putAttachment(type, ((IAttachmentSerializer<Tag, ?>) type.serializer).read(getExposedHolder(), serialized, provider));
+                if (type.trackChanges) {
+                    // The attachment was just read from this tag, so it can be written back as-is until it changes
+                    cacheSerialized(type.index, serialized.copy());
+                }
             } catch (Exception exception) {
                 LOGGER.error("Failed to deserialize data attachment {}. Skipping.", key, exception);
             }
@@ -5,8 +5,10 @@
 
 package net.neoforged.neoforge.attachment;
 
+import java.util.Arrays;
 import java.util.function.Predicate;
 import net.minecraft.core.HolderLookup;
+import net.minecraft.core.Registry;
 import net.minecraft.world.entity.Entity;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
@@ -19,6 +21,34 @@ import org.jetbrains.annotations.ApiStatus;
 @ApiStatus.Internal
 @EventBusSubscriber(modid = NeoForgeVersion.MOD_ID)
 public final class AttachmentInternals {
+    /**
+     * Attachment types by {@link AttachmentType#index}.
+     */
+    private static AttachmentType<?>[] typesByIndex = new AttachmentType<?>[0];
+
+    /**
+     * Assigns a dense index to each registered attachment type that does not have one yet.
+     * Indices are never reassigned, since holders may already store attachments by index.
+     */
+    public static void assignAttachmentTypeIndices(Registry<AttachmentType<?>> registry) {
+        int next = typesByIndex.length;
+        for (var type : registry) {
+            if (type.index == -1)
+                type.index = next++;
+        }
+        if (next == typesByIndex.length)
+            return;
+
+        var byIndex = Arrays.copyOf(typesByIndex, next);
+        for (var type : registry)
+            byIndex[type.index] = type;
+        typesByIndex = byIndex;
+    }
+
+    static AttachmentType<?> getTypeByIndex(int index) {
+        return typesByIndex[index];
+    }
+
     /**
      * Copy some attachments to another holder.
      */
@@ -26,17 +56,21 @@ public final class AttachmentInternals {
         if (from.attachments == null) {
             return;
         }
-        for (var entry : from.attachments.entrySet()) {
-            AttachmentType<?> type = entry.getKey();
+        for (int i = 0; i < from.attachments.length; ++i) {
+            Object attachment = from.attachments[i];
+            if (attachment == null) {
+                continue;
+            }
+            AttachmentType<?> type = getTypeByIndex(i);
             if (type.serializer == null) {
                 continue;
             }
             @SuppressWarnings("unchecked")
             var copyHandler = (IAttachmentCopyHandler<Object>) type.copyHandler;
             if (filter.test(type)) {
-                Object copy = copyHandler.copy(entry.getValue(), to.getExposedHolder(), provider);
+                Object copy = copyHandler.copy(attachment, to.getExposedHolder(), provider);
                 if (copy != null) {
-                    to.getAttachmentMap().put(type, copy);
+                    to.putAttachment(type, copy);
                 }
             }
         }
@@ -61,11 +61,18 @@ public final class AttachmentType<T> {
     final IAttachmentSerializer<?, T> serializer;
     final boolean copyOnDeath;
     final IAttachmentCopyHandler<T> copyHandler;
+    final boolean trackChanges;
+    /**
+     * Dense index of this type, used to index the storage of {@link AttachmentHolder}.
+     * Assigned when the attachment type registry is baked; {@code -1} if the type is not registered.
+     */
+    int index = -1;
 
     private AttachmentType(Builder<T> builder) {
         this.defaultValueSupplier = builder.defaultValueSupplier;
         this.serializer = builder.serializer;
         this.copyOnDeath = builder.copyOnDeath;
+        this.trackChanges = builder.trackChanges;
         this.copyHandler = builder.copyHandler != null ? builder.copyHandler : defaultCopyHandler(serializer);
     }
 
@@ -150,6 +157,7 @@ public final class AttachmentType<T> {
         @Nullable
         private IAttachmentSerializer<?, T> serializer;
         private boolean copyOnDeath;
+        private boolean trackChanges;
         @Nullable
         private IAttachmentCopyHandler<T> copyHandler;
 
@@ -223,6 +231,22 @@ public final class AttachmentType<T> {
             return this;
         }
 
+        /**
+         * Requests that the serialized form of this attachment be reused across saves, as long as the attachment did not change.
+         *
+         * <p>The attachment is considered changed when it is replaced through {@link IAttachmentHolder#setData}.
+         * <b>Modifying the attachment in place must be followed by a call to {@link IAttachmentHolder#markDirty},</b>
+         * otherwise stale data will be saved.
+         *
+         * <p>Change tracking can only be enabled for serializable attachments.
+         */
+        public Builder<T> trackChanges() {
+            if (this.serializer == null)
+                throw new IllegalStateException("trackChanges requires a serializer");
+            this.trackChanges = true;
+            return this;
+        }
+
         /**
          * Overrides the copyHandler for this attachment type.
          *
@@ -94,4 +94,28 @@ public interface IAttachmentHolder {
     default <T> @Nullable T removeData(Supplier<AttachmentType<T>> type) {
         return removeData(type.get());
     }
+
+    /**
+     * Marks the data attachment of the given type as changed, after it was modified in place.
+     *
+     * <p>This is only required for attachment types that opted into {@linkplain AttachmentType.Builder#trackChanges() change tracking}.
+     * Replacing the attachment with {@link #setData} marks it as changed automatically.
+     *
+     * <p>The default implementation sets the attachment to its current value again, if it is present.
+     */
+    default <T> void markDirty(AttachmentType<T> type) {
+        if (hasData(type)) {
+            setData(type, getData(type));
+        }
+    }
+
+    /**
+     * Marks the data attachment of the given type as changed, after it was modified in place.
+     *
+     * <p>This is only required for attachment types that opted into {@linkplain AttachmentType.Builder#trackChanges() change tracking}.
+     * Replacing the attachment with {@link #setData} marks it as changed automatically.
+     */
+    default <T> void markDirty(Supplier<AttachmentType<T>> type) {
+        markDirty(type.get());
+    }
 }
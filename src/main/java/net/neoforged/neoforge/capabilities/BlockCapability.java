@@ -5,16 +5,19 @@
 
 package net.neoforged.neoforge.capabilities;
 
+import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.neoforge.registries.RegistryManager;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
@@ -134,27 +137,104 @@ public final class BlockCapability<T, C> extends BaseCapability<T, C> {
         super(name, typeClass, contextClass);
     }
 
+    private static final IBlockCapabilityProvider<?, ?>[] NO_PROVIDERS = new IBlockCapabilityProvider<?, ?>[0];
+
     final Map<Block, List<IBlockCapabilityProvider<T, C>>> providers = new IdentityHashMap<>();
 
+    /**
+     * Dispatch table indexed by {@linkplain net.minecraft.core.Holder.Reference#registryId() block registry id},
+     * built by {@link #freezeProviders()} once registration is over, and rebuilt when the block ids are remapped.
+     * Blocks without providers map to {@link #NO_PROVIDERS}.
+     * Remains {@code null} before that, in which case lookups fall back to {@link #providers}.
+     */
+    @Nullable
+    private volatile DispatchTable<T, C> dispatchTable;
+
+    private record DispatchTable<T, C>(IBlockCapabilityProvider<T, C>[][] providersById, int idMappingVersion) {}
+
+    /**
+     * Builds the array-backed dispatch table from the registered providers.
+     * Called once {@link RegisterCapabilitiesEvent} has been fired to all mods.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized void freezeProviders() {
+        // Read the version first, so that a concurrent remap invalidates this table
+        int idMappingVersion = RegistryManager.getIdMappingVersion();
+        // Synced ids are not necessarily contiguous
+        int length = BuiltInRegistries.BLOCK.size();
+        for (var block : providers.keySet()) {
+            int id = block.builtInRegistryHolder().registryId();
+            // Blocks may be unmapped while a remote registry snapshot is applied, which is not an error
+            if (id < 0 && dispatchTable == null)
+                throw new IllegalStateException("Capability " + name() + " has a provider for unregistered block " + block);
+            length = Math.max(length, id + 1);
+        }
+
+        var byId = (IBlockCapabilityProvider<T, C>[][]) new IBlockCapabilityProvider<?, ?>[length][];
+        Arrays.fill(byId, NO_PROVIDERS);
+        for (var entry : providers.entrySet()) {
+            int id = entry.getKey().builtInRegistryHolder().registryId();
+            if (id >= 0)
+                byId[id] = entry.getValue().toArray((IBlockCapabilityProvider<T, C>[]) NO_PROVIDERS);
+        }
+
+        dispatchTable = new DispatchTable<>(byId, idMappingVersion);
+    }
+
+    @SuppressWarnings("unchecked")
+    private IBlockCapabilityProvider<T, C>[] getProviders(Block block) {
+        var table = dispatchTable;
+        if (table == null) {
+            // Not frozen yet, only happens during registration
+            var list = providers.get(block);
+            return list == null ? (IBlockCapabilityProvider<T, C>[]) NO_PROVIDERS : list.toArray((IBlockCapabilityProvider<T, C>[]) NO_PROVIDERS);
+        }
+        if (table.idMappingVersion() != RegistryManager.getIdMappingVersion()) {
+            freezeProviders();
+            table = dispatchTable;
+        }
+
+        var byId = table.providersById();
+        int id = block.builtInRegistryHolder().registryId();
+        return id >= 0 && id < byId.length ? byId[id] : (IBlockCapabilityProvider<T, C>[]) NO_PROVIDERS;
+    }
+
+    /**
+     * {@return {@code true} if at least one provider is registered for the given block}
+     *
+     * <p>This is a cheap check that can be used to skip fetching the block entity
+     * when no provider could possibly return a capability.
+     */
+    @ApiStatus.Internal
+    public boolean hasProvider(Block block) {
+        if (dispatchTable == null)
+            return providers.containsKey(block);
+        return getProviders(block).length != 0;
+    }
+
     @ApiStatus.Internal
     @Nullable
     public T getCapability(Level level, BlockPos pos, @Nullable BlockState state, @Nullable BlockEntity blockEntity, C context) {
         // Convert pos to immutable, it's easy to forget otherwise
         pos = pos.immutable();
 
-        // Get block state and block entity if they were not provided
-        if (blockEntity == null) {
-            if (state == null)
-                state = level.getBlockState(pos);
+        // Get block state if it was not provided
+        if (state == null)
+            state = blockEntity == null ? level.getBlockState(pos) : blockEntity.getBlockState();
 
-            if (state.hasBlockEntity())
-                blockEntity = level.getBlockEntity(pos);
-        } else {
-            if (state == null)
-                state = blockEntity.getBlockState();
-        }
+        var blockProviders = getProviders(state.getBlock());
+        // Skip the block entity lookup entirely if nobody can provide the capability
+        if (blockProviders.length == 0)
+            return null;
+
+        // Get block entity if it was not provided
+        if (blockEntity == null && state.hasBlockEntity())
+            blockEntity = level.getBlockEntity(pos);
+
+        if (blockProviders.length == 1)
+            return blockProviders[0].getCapability(level, pos, state, blockEntity, context);
 
-        for (var provider : providers.getOrDefault(state.getBlock(), List.of())) {
+        for (var provider : blockProviders) {
             var ret = provider.getCapability(level, pos, state, blockEntity, context);
             if (ret != null)
                 return ret;
@@ -10,6 +10,7 @@ import java.util.function.BooleanSupplier;
 import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.common.NeoForgeConfig;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -17,9 +18,13 @@ import org.jetbrains.annotations.Nullable;
  *
  * <p>The cache is invalidated when the level is notified of a change via {@link Level#invalidateCapabilities(BlockPos)}.
  *
- * <p>Instances are automatically cleared by the garbage collector when they are no longer in use.
+ * <p>Caches created with {@link #open} are held strongly by the level until they are {@linkplain #close() closed},
+ * which avoids the weak reference bookkeeping and is preferred when the owner has a clear lifecycle
+ * (for example a block entity that closes its caches in {@code setRemoved}).
+ * As a fallback, caches created with {@link #create} are held weakly and
+ * automatically cleared by the garbage collector when they are no longer in use.
  */
-public final class BlockCapabilityCache<T, C> {
+public final class BlockCapabilityCache<T, C> implements AutoCloseable {
     /**
      * Creates a new cache instance and registers it to the level.
      *
@@ -45,6 +50,8 @@ public final class BlockCapabilityCache<T, C> {
      * The listener itself might be in a chunk that is being unloaded, for example.</li>
      * <li>The listener does not receive notifications before {@link #getCapability()} is called.
      * After each invalidation, {@link #getCapability()} must be called again to enable further notifications.</li>
+     * <li>If {@link NeoForgeConfig.Server#deferCapabilityInvalidation} is enabled, notifications are coalesced
+     * and delivered in one batch at the end of the level tick, rather than immediately.</li>
      * </ul>
      *
      * @param capability           the capability
@@ -67,6 +74,34 @@ public final class BlockCapabilityCache<T, C> {
         return cache;
     }
 
+    /**
+     * Creates a new cache instance and registers it to the level, until {@link #close()} is called.
+     *
+     * @see #open(BlockCapability, ServerLevel, BlockPos, Object, BooleanSupplier, Runnable)
+     */
+    public static <T, C> BlockCapabilityCache<T, C> open(BlockCapability<T, C> capability, ServerLevel level, BlockPos pos, C context) {
+        return open(capability, level, pos, context, () -> true, () -> {});
+    }
+
+    /**
+     * Creates a new cache instance with an invalidation listener, and registers it to the level until {@link #close()} is called.
+     *
+     * <p>Unlike {@link #create(BlockCapability, ServerLevel, BlockPos, Object, BooleanSupplier, Runnable) create},
+     * the level keeps a strong reference to the cache, so it <b>must</b> be closed once it is not needed anymore.
+     * The cache is also deregistered automatically once {@code isValid} returns {@code false} upon invalidation.
+     * Otherwise, the same details as for {@code create} apply.
+     */
+    public static <T, C> BlockCapabilityCache<T, C> open(BlockCapability<T, C> capability, ServerLevel level, BlockPos pos, C context, BooleanSupplier isValid, Runnable invalidationListener) {
+        Objects.requireNonNull(capability);
+        Objects.requireNonNull(isValid);
+        Objects.requireNonNull(invalidationListener);
+        pos = pos.immutable();
+
+        var cache = new BlockCapabilityCache<>(capability, level, pos, context, isValid, invalidationListener);
+        cache.handle = level.getCapabilityListenerHolder().addTrackedListener(pos, cache.listener);
+        return cache;
+    }
+
     private final BlockCapability<T, C> capability;
     private final ServerLevel level;
     private final BlockPos pos;
@@ -82,7 +117,13 @@ public final class BlockCapabilityCache<T, C> {
     private T cachedCap = null;
 
     private boolean canQuery = true;
+    private boolean closed = false;
     private final ICapabilityInvalidationListener listener;
+    /**
+     * Registration handle if the cache was created with {@link #open}, {@code null} otherwise.
+     */
+    @Nullable
+    private CapabilityListenerHolder.ListenerHandle handle;
 
     private BlockCapabilityCache(BlockCapability<T, C> capability, ServerLevel level, BlockPos pos, C context, BooleanSupplier isValid, Runnable invalidationListener) {
         this.capability = capability;
@@ -91,6 +132,9 @@ public final class BlockCapabilityCache<T, C> {
         this.context = context;
 
         this.listener = () -> {
+            if (closed)
+                return false;
+
             if (!cacheValid) {
                 // already invalidated, just check if the cache should be removed
                 return isValid.getAsBoolean();
@@ -133,6 +177,8 @@ public final class BlockCapabilityCache<T, C> {
      */
     @Nullable
     public T getCapability() {
+        if (closed)
+            throw new IllegalStateException("Do not call getCapability on a closed cache!");
         if (!canQuery)
             throw new IllegalStateException("Do not call getCapability on an invalid cache or from the invalidation listener!");
 
@@ -149,4 +195,21 @@ public final class BlockCapabilityCache<T, C> {
 
         return cachedCap;
     }
+
+    /**
+     * Stops tracking the target position, and releases the cached capability.
+     * The cache cannot be queried anymore afterwards.
+     *
+     * <p>Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        cacheValid = false;
+        cachedCap = null;
+        if (handle != null) {
+            handle.close();
+            handle = null;
+        }
+    }
 }
@@ -48,6 +48,9 @@ public class CapabilityHooks {
         var event = new RegisterCapabilitiesEvent();
         ModLoader.postEventWrapContainerInModOrder(event);
 
+        for (var capability : BlockCapability.getAll())
+            capability.freezeProviders();
+
         initFinished = true;
     }
 
@@ -6,14 +6,20 @@
 package net.neoforged.neoforge.capabilities;
 
 import it.unimi.dsi.fastutil.longs.Long2ReferenceMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ReferenceOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.Arrays;
 import java.util.Set;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.ChunkPos;
+import net.neoforged.neoforge.common.NeoForgeConfig;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Holder for capability listeners associated to a level.
@@ -35,7 +41,13 @@ public class CapabilityListenerHolder {
     private final ReferenceQueue<ICapabilityInvalidationListener> queue = new ReferenceQueue<>();
 
     /**
-     * Adds a listener.
+     * Map of chunk pos -> slab of explicitly deregistered listeners in that chunk.
+     * Unlike {@link #byChunkThenBlock}, listeners are held strongly and removed when their handle is closed.
+     */
+    private final Long2ReferenceMap<ListenerSlab> slabsByChunk = new Long2ReferenceOpenHashMap<>();
+
+    /**
+     * Adds a listener, held by a weak reference.
      */
     public void addListener(BlockPos pos, ICapabilityInvalidationListener listener) {
         pos = pos.immutable();
@@ -49,15 +61,50 @@ public class CapabilityListenerHolder {
         }
     }
 
+    /**
+     * Adds a listener that is held strongly until the returned handle is closed,
+     * or until the listener returns {@code false} from {@link ICapabilityInvalidationListener#onInvalidate()}.
+     */
+    public ListenerHandle addTrackedListener(BlockPos pos, ICapabilityInvalidationListener listener) {
+        long chunkPos = ChunkPos.asLong(pos);
+        var slab = slabsByChunk.get(chunkPos);
+        if (slab == null) {
+            slab = new ListenerSlab(this, chunkPos);
+            slabsByChunk.put(chunkPos, slab);
+        }
+
+        var handle = new ListenerHandle(listener);
+        slab.add(pos.asLong(), handle);
+        return handle;
+    }
+
+    /**
+     * Whether invalidations are queued and delivered in one batch at the end of the tick,
+     * instead of being delivered immediately.
+     * Refreshed from {@link NeoForgeConfig.Server#deferCapabilityInvalidation} at the end of each tick.
+     */
+    private boolean deferInvalidations = false;
+    /**
+     * Block positions and chunk positions that were invalidated since the last batch was delivered.
+     * Each set has a spare counterpart so that invalidations triggered during delivery end up in the next batch.
+     */
+    private LongOpenHashSet pendingPositions = new LongOpenHashSet();
+    private LongOpenHashSet pendingChunks = new LongOpenHashSet();
+    private LongOpenHashSet sparePositions = new LongOpenHashSet();
+    private LongOpenHashSet spareChunks = new LongOpenHashSet();
+
+    private long invalidationCount = 0;
+    private long notifiedListenerCount = 0;
+
     /**
      * Invalidates listeners at a specific block position.
      */
     public void invalidatePos(BlockPos pos) {
-        var chunkHolder = byChunkThenBlock.get(ChunkPos.asLong(pos));
-        if (chunkHolder != null) {
-            var caches = chunkHolder.get(pos.asLong());
-            if (caches != null)
-                invalidateList(caches);
+        invalidationCount++;
+        if (deferInvalidations) {
+            pendingPositions.add(pos.asLong());
+        } else {
+            invalidatePosNow(pos.asLong());
         }
     }
 
@@ -65,7 +112,34 @@ public class CapabilityListenerHolder {
      * Invalidates listeners at a specific chunk position.
      */
     public void invalidateChunk(ChunkPos chunkPos) {
-        var chunkHolder = byChunkThenBlock.get(chunkPos.toLong());
+        invalidationCount++;
+        if (deferInvalidations) {
+            pendingChunks.add(chunkPos.toLong());
+        } else {
+            invalidateChunkNow(chunkPos.toLong());
+        }
+    }
+
+    private void invalidatePosNow(long pos) {
+        long chunkPos = ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4);
+        var slab = slabsByChunk.get(chunkPos);
+        if (slab != null)
+            slab.invalidatePos(pos);
+
+        var chunkHolder = byChunkThenBlock.get(chunkPos);
+        if (chunkHolder != null) {
+            var caches = chunkHolder.get(pos);
+            if (caches != null)
+                invalidateList(caches);
+        }
+    }
+
+    private void invalidateChunkNow(long chunkPos) {
+        var slab = slabsByChunk.get(chunkPos);
+        if (slab != null)
+            slab.invalidateAll();
+
+        var chunkHolder = byChunkThenBlock.get(chunkPos);
         if (chunkHolder != null) {
             for (var caches : chunkHolder.values())
                 invalidateList(caches);
@@ -73,10 +147,81 @@ public class CapabilityListenerHolder {
     }
 
     private void invalidateList(Set<ListenerReference> caches) {
-        caches.removeIf(ref -> {
-            var listener = ref.get();
-            return listener == null || !listener.onInvalidate();
-        });
+        var iterator = caches.iterator();
+        while (iterator.hasNext()) {
+            var listener = iterator.next().get();
+            if (listener == null) {
+                iterator.remove();
+                continue;
+            }
+
+            notifiedListenerCount++;
+            if (!listener.onInvalidate())
+                iterator.remove();
+        }
+    }
+
+    /**
+     * Delivers the invalidations queued while {@link #deferInvalidations} was enabled.
+     * Positions inside an invalidated chunk are skipped since the chunk invalidation already covers them.
+     */
+    private void deliverPendingInvalidations() {
+        if (pendingPositions.isEmpty() && pendingChunks.isEmpty())
+            return;
+
+        // Swap the buffers first: listeners might trigger further invalidations
+        var positions = pendingPositions;
+        var chunks = pendingChunks;
+        pendingPositions = sparePositions;
+        pendingChunks = spareChunks;
+        sparePositions = positions;
+        spareChunks = chunks;
+
+        for (LongIterator it = chunks.iterator(); it.hasNext();) {
+            invalidateChunkNow(it.nextLong());
+        }
+        for (LongIterator it = positions.iterator(); it.hasNext();) {
+            long pos = it.nextLong();
+            if (!chunks.contains(ChunkPos.asLong(BlockPos.getX(pos) >> 4, BlockPos.getZ(pos) >> 4)))
+                invalidatePosNow(pos);
+        }
+
+        positions.clear();
+        chunks.clear();
+    }
+
+    /**
+     * {@return the number of position and chunk invalidations requested in this level since it was loaded}
+     */
+    public long getInvalidationCount() {
+        return invalidationCount;
+    }
+
+    /**
+     * {@return the number of times a listener was notified in this level since it was loaded}
+     */
+    public long getNotifiedListenerCount() {
+        return notifiedListenerCount;
+    }
+
+    /**
+     * Performs the end of tick maintenance: delivers deferred invalidations,
+     * refreshes the invalidation mode, and removes garbage-collected listeners.
+     */
+    public void onEndTick() {
+        deliverPendingInvalidations();
+        deferInvalidations = NeoForgeConfig.SERVER.deferCapabilityInvalidation.get();
+        clean();
+    }
+
+    /**
+     * {@return the number of listeners currently held strongly, i.e. registered with {@link #addTrackedListener}}
+     */
+    public int getTrackedListenerCount() {
+        int count = 0;
+        for (var slab : slabsByChunk.values())
+            count += slab.live;
+        return count;
     }
 
     /**
@@ -107,6 +252,152 @@ public class CapabilityListenerHolder {
         }
     }
 
+    /**
+     * Handle to a listener registered with {@link #addTrackedListener}.
+     * Closing the handle deregisters the listener; closing it more than once has no effect.
+     */
+    public static final class ListenerHandle implements AutoCloseable {
+        private final ICapabilityInvalidationListener listener;
+        /**
+         * The slab currently holding the listener, or {@code null} once it has been removed.
+         */
+        @Nullable
+        private ListenerSlab slab;
+        private int slot;
+
+        private ListenerHandle(ICapabilityInvalidationListener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * {@return {@code true} if the listener is still registered}
+         */
+        public boolean isRegistered() {
+            return slab != null;
+        }
+
+        @Override
+        public void close() {
+            if (slab != null)
+                slab.remove(slot);
+        }
+    }
+
+    /**
+     * Chunk-local storage of strongly held listeners.
+     *
+     * <p>Each listener occupies a slot in parallel arrays. Slots at the same block position
+     * form a doubly-linked list, whose head is stored in {@link #heads}.
+     * Freed slots are reused through a free list threaded through {@link #next}.
+     */
+    private static final class ListenerSlab {
+        private static final int INITIAL_CAPACITY = 8;
+
+        private final CapabilityListenerHolder holder;
+        private final long chunkPos;
+        private final Long2IntOpenHashMap heads = new Long2IntOpenHashMap();
+        private long[] positions = new long[INITIAL_CAPACITY];
+        private ListenerHandle[] handles = new ListenerHandle[INITIAL_CAPACITY];
+        private int[] next = new int[INITIAL_CAPACITY];
+        private int[] prev = new int[INITIAL_CAPACITY];
+        /**
+         * Number of slots that have ever been used.
+         */
+        private int used = 0;
+        /**
+         * Number of slots currently holding a listener.
+         */
+        private int live = 0;
+        private int freeHead = -1;
+
+        private ListenerSlab(CapabilityListenerHolder holder, long chunkPos) {
+            this.holder = holder;
+            this.chunkPos = chunkPos;
+            this.heads.defaultReturnValue(-1);
+        }
+
+        private void add(long pos, ListenerHandle handle) {
+            int slot;
+            if (freeHead != -1) {
+                slot = freeHead;
+                freeHead = next[slot];
+            } else {
+                if (used == handles.length)
+                    grow();
+                slot = used++;
+            }
+
+            int head = heads.put(pos, slot);
+            positions[slot] = pos;
+            handles[slot] = handle;
+            prev[slot] = -1;
+            next[slot] = head;
+            if (head != -1)
+                prev[head] = slot;
+
+            handle.slab = this;
+            handle.slot = slot;
+            live++;
+        }
+
+        private void grow() {
+            int capacity = handles.length * 2;
+            positions = Arrays.copyOf(positions, capacity);
+            handles = Arrays.copyOf(handles, capacity);
+            next = Arrays.copyOf(next, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+        }
+
+        private void remove(int slot) {
+            int before = prev[slot];
+            int after = next[slot];
+            if (before == -1) {
+                if (after == -1)
+                    heads.remove(positions[slot]);
+                else
+                    heads.put(positions[slot], after);
+            } else {
+                next[before] = after;
+            }
+            if (after != -1)
+                prev[after] = before;
+
+            handles[slot].slab = null;
+            handles[slot] = null;
+            next[slot] = freeHead;
+            freeHead = slot;
+
+            if (--live == 0)
+                holder.slabsByChunk.remove(chunkPos, this);
+        }
+
+        private void invalidatePos(long pos) {
+            int slot = heads.get(pos);
+            // Stop if a listener closed the rest of the chain
+            while (slot != -1 && handles[slot] != null && positions[slot] == pos) {
+                // Read the next slot first, since the current one might be freed
+                int after = next[slot];
+                notify(slot);
+                slot = after;
+            }
+        }
+
+        private void invalidateAll() {
+            int end = used;
+            for (int slot = 0; slot < end; ++slot) {
+                if (handles[slot] != null)
+                    notify(slot);
+            }
+        }
+
+        private void notify(int slot) {
+            holder.notifiedListenerCount++;
+            var handle = handles[slot];
+            if (!handle.listener.onInvalidate() && handle.slab == this && handle.slot == slot)
+                remove(slot);
+        }
+    }
+
     private static class ListenerReference extends WeakReference<ICapabilityInvalidationListener> {
         private final BlockPos pos;
         private final int listenerHashCode;
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.common;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import net.neoforged.bus.api.Event;
+import org.jetbrains.annotations.ApiStatus;
+
+/**
+ * Keeps track of the event types that have listeners on {@link NeoForge#EVENT_BUS},
+ * so that hot code paths can skip creating and posting events that nobody listens to.
+ *
+ * <p>Listener registrations are observed through the class checker of the bus.
+ * Unregistering a listener is not tracked: once an event type had a listener, it is always considered listened to.
+ */
+public final class EventListenerTracker {
+    private static final Set<Class<?>> LISTENED_TYPES = ConcurrentHashMap.newKeySet();
+    /**
+     * Incremented every time a new event type gets a listener, to invalidate the cached results of {@link Query}.
+     */
+    private static volatile int version;
+
+    private EventListenerTracker() {}
+
+    @ApiStatus.Internal
+    static void onListenerRegistered(Class<?> eventType) {
+        if (LISTENED_TYPES.add(eventType)) {
+            synchronized (EventListenerTracker.class) {
+                version = (version + 1) & Integer.MAX_VALUE >>> 1;
+            }
+        }
+    }
+
+    /**
+     * {@return whether a listener was registered on {@link NeoForge#EVENT_BUS} for the given event type or one of its supertypes}
+     *
+     * <p>This iterates over all the listened types; prefer a {@link Query} for code that runs frequently.
+     */
+    public static boolean hasListeners(Class<? extends Event> eventType) {
+        for (Class<?> listenedType : LISTENED_TYPES) {
+            if (listenedType.isAssignableFrom(eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a cached query for the given event type, to be stored in a static field.
+     */
+    public static Query query(Class<? extends Event> eventType) {
+        return new Query(eventType);
+    }
+
+    /**
+     * A cached {@link #hasListeners(Class)} query, which is only recomputed when a new event type gets a listener.
+     */
+    public static final class Query {
+        private final Class<? extends Event> eventType;
+        /**
+         * The version the result was computed for, shifted left by one, with the result in the lowest bit.
+         * Packed in a single field so that concurrent readers never see a result with the wrong version.
+         */
+        private int state = -1;
+
+        private Query(Class<? extends Event> eventType) {
+            this.eventType = eventType;
+        }
+
+        public boolean hasListeners() {
+            int currentVersion = version;
+            int currentState = state;
+            if (currentState >>> 1 == currentVersion) {
+                return (currentState & 1) != 0;
+            }
+            boolean result = EventListenerTracker.hasListeners(eventType);
+            state = currentVersion << 1 | (result ? 1 : 0);
+            return result;
+        }
+    }
+}
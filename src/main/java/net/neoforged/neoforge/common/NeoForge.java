@@ -18,5 +18,6 @@ public class NeoForge {
         if (IModBusEvent.class.isAssignableFrom(eventType)) {
             throw new IllegalArgumentException("IModBusEvent events are not allowed on the common NeoForge bus! Use a mod bus instead.");
         }
+        EventListenerTracker.onListenerRegistered(eventType);
     }).build();
 }
@@ -10,6 +10,7 @@ import net.neoforged.fml.Logging;
 import net.neoforged.fml.event.config.ModConfigEvent;
 import net.neoforged.neoforge.common.ModConfigSpec.BooleanValue;
 import net.neoforged.neoforge.common.ModConfigSpec.ConfigValue;
+import net.neoforged.neoforge.common.ModConfigSpec.IntValue;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 
@@ -28,6 +29,14 @@ public class NeoForgeConfig {
 
         public final BooleanValue advertiseDedicatedServerToLan;
 
+        public final BooleanValue deferCapabilityInvalidation;
+
+        public final BooleanValue enableTickProfiler;
+
+        public final IntValue chunkGenerationConcurrency;
+
+        public final BooleanValue parallelWorldgenModifiers;
+
         Server(ModConfigSpec.Builder builder) {
             builder.comment("Server configuration settings")
                     .push("server");
@@ -60,6 +69,26 @@ public class NeoForgeConfig {
                     .translation("neoforge.configgui.advertiseDedicatedServerToLan")
                     .define("advertiseDedicatedServerToLan", true);
 
+            deferCapabilityInvalidation = builder
+                    .comment("Set this to true to coalesce block capability invalidations and deliver them to BlockCapabilityCache listeners in one batch at the end of each level tick, instead of immediately. Reduces tick spikes when chunks with many capability caches load or unload, but caches may return stale capabilities until the end of the tick. Default: false.")
+                    .translation("neoforge.configgui.deferCapabilityInvalidation")
+                    .define("deferCapabilityInvalidation", false);
+
+            enableTickProfiler = builder
+                    .comment("Set this to true to enable the block entity and entity tick profiler when the server starts. The profiler aggregates tick times per type without allocating, so it can be left enabled. Use /neoforge profiler to view or dump its data. Default: false.")
+                    .translation("neoforge.configgui.enableTickProfiler")
+                    .define("enableTickProfiler", false);
+
+            chunkGenerationConcurrency = builder
+                    .comment("The number of chunks that /neoforge generate works on at the same time, in multiples of 8 chunks. Higher values keep more world generation threads busy, at the cost of memory. Set this to 0 to use the number of available processors. Default: 0.")
+                    .translation("neoforge.configgui.chunkGenerationConcurrency")
+                    .defineInRange("chunkGenerationConcurrency", 0, 0, 256);
+
+            parallelWorldgenModifiers = builder
+                    .comment("Set this to true to apply biome and structure modifiers to several biomes and structures at the same time when the server starts. This is only done when all the modifiers are built into NeoForge, since modifiers from mods may not be thread-safe. The result does not depend on this setting. Default: true.")
+                    .translation("neoforge.configgui.parallelWorldgenModifiers")
+                    .define("parallelWorldgenModifiers", true);
+
             builder.pop();
         }
     }
@@ -71,6 +100,8 @@ public class NeoForgeConfig {
         public final ModConfigSpec.EnumValue<TagConventionLogWarning.LogWarningMode> logUntranslatedItemTagWarnings;
         public final ModConfigSpec.EnumValue<TagConventionLogWarning.LogWarningMode> logLegacyTagWarnings;
 
+        public final IntValue maxSplitPacketSize;
+
         Common(ModConfigSpec.Builder builder) {
             builder.comment("General configuration settings")
                     .push("general");
@@ -85,6 +116,11 @@ public class NeoForgeConfig {
                     .translation("forge.configgui.logLegacyTagWarnings")
                     .defineEnum("logLegacyTagWarnings", TagConventionLogWarning.LogWarningMode.DEV_SHORT);
 
+            maxSplitPacketSize = builder
+                    .comment("The maximum size in bytes of a packet that was split in multiple parts, which a connection buffers while receiving its parts. Connections that send larger packets are disconnected. Increase this if large registries or data fail to synchronize. Default: 67108864 (64 MiB).")
+                    .translation("neoforge.configgui.maxSplitPacketSize")
+                    .defineInRange("maxSplitPacketSize", 64 * 1024 * 1024, 1024 * 1024, Integer.MAX_VALUE);
+
             builder.pop();
         }
     }
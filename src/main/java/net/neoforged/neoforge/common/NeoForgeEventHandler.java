@@ -9,6 +9,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
@@ -122,12 +123,19 @@ public class NeoForgeEventHandler {
                 }
                 final var playerMaps = player.connection.connection.channel().attr(RegistryManager.ATTRIBUTE_KNOWN_DATA_MAPS).get();
                 if (playerMaps == null) return; // Skip gametest players for instance
-                handleSync(player, regOpt.get(), playerMaps.getOrDefault(registry, List.of()));
+                final var knownMaps = playerMaps.getOrDefault(registry, List.of());
+                if (event.getPlayer() == null) {
+                    // On reload, only send the data maps that changed
+                    final var changed = DATA_MAPS.getChangedDataMaps().getOrDefault(registry, Set.of());
+                    handleSync(player, regOpt.get(), knownMaps.stream().filter(changed::contains).toList(), false);
+                } else {
+                    handleSync(player, regOpt.get(), knownMaps, true);
+                }
             });
         });
     }
 
-    private <T> void handleSync(ServerPlayer player, Registry<T> registry, Collection<ResourceLocation> attachments) {
+    private <T> void handleSync(ServerPlayer player, Registry<T> registry, Collection<ResourceLocation> attachments, boolean fullSync) {
         if (attachments.isEmpty()) return;
         final Map<ResourceLocation, Map<ResourceKey<T>, ?>> att = new HashMap<>();
         attachments.forEach(key -> {
@@ -136,7 +144,7 @@ public class NeoForgeEventHandler {
             att.put(key, registry.getDataMap(attach));
         });
         if (!att.isEmpty()) {
-            PacketDistributor.sendToPlayer(player, new RegistryDataMapSyncPayload<>(registry.key(), att));
+            PacketDistributor.sendToPlayer(player, new RegistryDataMapSyncPayload<>(registry.key(), att, fullSync));
         }
     }
 
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.common.crafting;
+
+import java.util.Arrays;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.crafting.Ingredient;
+import net.neoforged.neoforge.registries.RegistryManager;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The set of {@link Item}s accepted by a {@linkplain Ingredient#isSimple() simple} {@link Ingredient},
+ * stored as a bitset indexed by the registry id of the items.
+ *
+ * <p>Indices are built lazily by {@link Ingredient#test}, and rebuilt after tags are reloaded or item ids are remapped.
+ * Compound, intersection and difference ingredients combine the indices of their children
+ * instead of testing every candidate item.
+ */
+@ApiStatus.Internal
+public final class ItemMembershipIndex {
+    /**
+     * Marker for ingredients that cannot be indexed, because they test more than the item.
+     * Always valid, since tag reloads do not change whether an ingredient is simple.
+     */
+    private static final ItemMembershipIndex UNSUPPORTED = new ItemMembershipIndex(new long[0], -1, -1);
+
+    /**
+     * Incremented every time tags are reloaded, which invalidates all the indices built before.
+     */
+    private static volatile int currentGeneration;
+
+    private final long[] words;
+    private final int generation;
+    private final int idMappingVersion;
+
+    private ItemMembershipIndex(long[] words, int generation, int idMappingVersion) {
+        this.words = words;
+        this.generation = generation;
+        this.idMappingVersion = idMappingVersion;
+    }
+
+    /**
+     * Invalidates all the indices, to be called when tags change.
+     */
+    public static synchronized void invalidateAll() {
+        currentGeneration++;
+    }
+
+    /**
+     * {@return the index of the given ingredient, or {@code null} if the ingredient cannot be indexed}
+     *
+     * @param cached the index that was previously built for this ingredient, if any
+     */
+    @Nullable
+    public static ItemMembershipIndex get(Ingredient ingredient, @Nullable ItemMembershipIndex cached) {
+        if (cached != null && (cached == UNSUPPORTED || cached.generation == currentGeneration && cached.idMappingVersion == RegistryManager.getIdMappingVersion())) {
+            return cached;
+        }
+        return build(ingredient);
+    }
+
+    /**
+     * {@return whether the item of the stack is part of this index}
+     *
+     * <p>Empty stacks are tested as {@linkplain net.minecraft.world.item.Items#AIR air}, like {@link ItemStack#is(Item)} does.
+     */
+    public boolean contains(ItemStack stack) {
+        int id = stack.getItem().builtInRegistryHolder().registryId();
+        int word = id >>> 6;
+        return id >= 0 && word < words.length && (words[word] & (1L << id)) != 0;
+    }
+
+    public boolean isSupported() {
+        return this != UNSUPPORTED;
+    }
+
+    private static ItemMembershipIndex build(Ingredient ingredient) {
+        // Read the generation and version first, so that a concurrent reload or remap invalidates this index
+        int generation = currentGeneration;
+        int idMappingVersion = RegistryManager.getIdMappingVersion();
+        long[] words = buildWords(ingredient);
+        return words == null ? UNSUPPORTED : new ItemMembershipIndex(words, generation, idMappingVersion);
+    }
+
+    @Nullable
+    private static long[] buildWords(Ingredient ingredient) {
+        // Empty ingredients also match empty stacks of any item
+        if (!ingredient.isSimple() || ingredient.isEmpty()) {
+            return null;
+        }
+
+        var custom = ingredient.getCustomIngredient();
+        if (custom == null) {
+            long[] words = new long[0];
+            for (var value : ingredient.getValues()) {
+                for (var stack : value.getItems()) {
+                    words = set(words, stack.getItem());
+                }
+            }
+            return words;
+        } else if (custom instanceof CompoundIngredient compound) {
+            long[] words = new long[0];
+            for (var child : compound.children()) {
+                var childIndex = child.getMembershipIndex();
+                if (childIndex == null) {
+                    return null;
+                }
+                words = or(words, childIndex.words);
+            }
+            return words;
+        } else if (custom instanceof IntersectionIngredient intersection) {
+            long[] words = null;
+            for (var child : intersection.children()) {
+                var childIndex = child.getMembershipIndex();
+                if (childIndex == null) {
+                    return null;
+                }
+                words = words == null ? childIndex.words.clone() : and(words, childIndex.words);
+            }
+            return words;
+        } else if (custom instanceof DifferenceIngredient difference) {
+            var baseIndex = difference.base().getMembershipIndex();
+            var subtractedIndex = difference.subtracted().getMembershipIndex();
+            if (baseIndex == null || subtractedIndex == null) {
+                return null;
+            }
+            return andNot(baseIndex.words, subtractedIndex.words);
+        } else {
+            // Simple ingredients list all the items they accept, but the list may contain
+            // placeholders such as the barrier of empty tags, so every candidate is tested once
+            long[] words = new long[0];
+            for (var it = custom.getItems().iterator(); it.hasNext();) {
+                var stack = it.next();
+                if (custom.test(stack)) {
+                    words = set(words, stack.getItem());
+                }
+            }
+            return words;
+        }
+    }
+
+    private static long[] set(long[] words, Item item) {
+        int id = item.builtInRegistryHolder().registryId();
+        if (id < 0) {
+            throw new IllegalStateException("Unregistered item in ingredient: " + item);
+        }
+        int word = id >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, word + 1);
+        }
+        words[word] |= 1L << id;
+        return words;
+    }
+
+    private static long[] or(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, Math.max(a.length, b.length));
+        for (int i = 0; i < b.length; i++) {
+            result[i] |= b[i];
+        }
+        return result;
+    }
+
+    private static long[] and(long[] a, long[] b) {
+        long[] result = Arrays.copyOf(a, Math.min(a.length, b.length));
+        for (int i = 0; i < result.length; i++) {
+            result[i] &= b[i];
+        }
+        return result;
+    }
+
+    private static long[] andNot(long[] a, long[] b) {
+        long[] result = a.clone();
+        for (int i = 0; i < Math.min(a.length, b.length); i++) {
+            result[i] &= ~b[i];
+        }
+        return result;
+    }
+}
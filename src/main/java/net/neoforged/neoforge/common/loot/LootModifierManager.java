@@ -13,13 +13,17 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.mojang.serialization.DynamicOps;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.packs.resources.Resource;
@@ -27,14 +31,29 @@ import net.minecraft.server.packs.resources.ResourceManager;
 import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
 import net.minecraft.util.GsonHelper;
 import net.minecraft.util.profiling.ProfilerFiller;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.storage.loot.LootContext;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.Nullable;
 
 public class LootModifierManager extends SimpleJsonResourceReloadListener {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
     public static final Logger LOGGER = LogManager.getLogger();
 
+    private static final IndexedModifier[] NO_MODIFIERS = new IndexedModifier[0];
+
     private Map<ResourceLocation, IGlobalLootModifier> registeredLootModifiers = ImmutableMap.of();
+    /**
+     * The modifiers that can apply to each loot table, in layered order.
+     * Only contains the loot tables that some modifiers are restricted to.
+     */
+    private Map<ResourceLocation, IndexedModifier[]> modifiersByLootTable = Map.of();
+    /**
+     * The modifiers that are not restricted to a single loot table, in layered order.
+     */
+    private IndexedModifier[] unrestrictedModifiers = NO_MODIFIERS;
+    private Map<ResourceLocation, Statistics> statistics = Map.of();
     private static final String folder = "loot_modifiers";
 
     public LootModifierManager() {
@@ -86,6 +105,67 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
                     .ifPresent(carrier -> builder.put(location, carrier.carrier()));
         }
         this.registeredLootModifiers = builder.build();
+        this.buildIndex();
+    }
+
+    /**
+     * Groups the modifiers by the loot table that their first condition requires, if it is a {@link LootTableIdCondition}.
+     * This allows skipping the modifiers of the other loot tables without testing any of their conditions.
+     */
+    private void buildIndex() {
+        List<IndexedModifier> all = new ArrayList<>();
+        Set<ResourceLocation> lootTables = new LinkedHashSet<>();
+        Map<ResourceLocation, Statistics> statistics = new HashMap<>();
+        for (Map.Entry<ResourceLocation, IGlobalLootModifier> entry : registeredLootModifiers.entrySet()) {
+            var stats = new Statistics();
+            var modifier = new IndexedModifier(entry.getValue(), getRequiredLootTable(entry.getValue()), stats);
+            statistics.put(entry.getKey(), stats);
+            all.add(modifier);
+            if (modifier.lootTable() != null) {
+                lootTables.add(modifier.lootTable());
+            }
+        }
+
+        // Each loot table gets the unrestricted modifiers and its own, still in layered order
+        Map<ResourceLocation, IndexedModifier[]> index = new HashMap<>();
+        for (ResourceLocation lootTable : lootTables) {
+            index.put(lootTable, all.stream()
+                    .filter(modifier -> modifier.lootTable() == null || modifier.lootTable().equals(lootTable))
+                    .toArray(IndexedModifier[]::new));
+        }
+
+        this.modifiersByLootTable = index;
+        this.unrestrictedModifiers = all.stream().filter(modifier -> modifier.lootTable() == null).toArray(IndexedModifier[]::new);
+        this.statistics = Map.copyOf(statistics);
+        LOGGER.debug("Indexed {} global loot modifiers: {} apply to all loot tables, the others to {} specific loot tables", all.size(), this.unrestrictedModifiers.length, index.size());
+    }
+
+    @Nullable
+    private static ResourceLocation getRequiredLootTable(IGlobalLootModifier modifier) {
+        if (modifier instanceof LootModifier lootModifier && lootModifier.conditions.length > 0 && lootModifier.conditions[0] instanceof LootTableIdCondition condition) {
+            return condition.getTargetLootTableId();
+        }
+        return null;
+    }
+
+    /**
+     * Applies the modifiers that can apply to the queried loot table of the context, in layered order.
+     */
+    public ObjectArrayList<ItemStack> apply(ObjectArrayList<ItemStack> generatedLoot, LootContext context) {
+        IndexedModifier[] modifiers = modifiersByLootTable.getOrDefault(context.getQueriedLootTableId(), unrestrictedModifiers);
+        for (IndexedModifier modifier : modifiers) {
+            long start = System.nanoTime();
+            generatedLoot = modifier.modifier().apply(generatedLoot, context);
+            modifier.statistics().record(System.nanoTime() - start);
+        }
+        return generatedLoot;
+    }
+
+    /**
+     * {@return the statistics of each loot modifier, by the id of the loot modifier}
+     */
+    public Map<ResourceLocation, Statistics> getStatistics() {
+        return statistics;
     }
 
     /**
@@ -94,4 +174,33 @@ public class LootModifierManager extends SimpleJsonResourceReloadListener {
     public Collection<IGlobalLootModifier> getAllLootMods() {
         return registeredLootModifiers.values();
     }
+
+    private record IndexedModifier(IGlobalLootModifier modifier, @Nullable ResourceLocation lootTable, Statistics statistics) {}
+
+    /**
+     * How often a loot modifier was applied since the last reload, and how long it took in total.
+     * Loot modifiers restricted to other loot tables are not applied, and are not counted.
+     */
+    public static final class Statistics {
+        private final LongAdder applications = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        private void record(long nanos) {
+            applications.increment();
+            totalNanos.add(nanos);
+        }
+
+        public long getApplications() {
+            return applications.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public void reset() {
+            applications.reset();
+            totalNanos.reset();
+        }
+    }
 }
@@ -5,13 +5,13 @@
 
 package net.neoforged.neoforge.common.util;
 
-import java.util.BitSet;
-import java.util.LinkedList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 import java.util.function.Predicate;
 
 public class RecipeMatcher {
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
     /**
      * Attempts to match inputs to the specified tests. In the best way that all inputs are used by one test.
      * Will return null in any of these cases:
@@ -20,6 +20,9 @@ public class RecipeMatcher {
      * any test doesn't match a input
      * If we are unable to determine a proper pair
      *
+     * <p>The pairing is found with the Hopcroft-Karp algorithm, in {@code O(n^2.5)} for {@code n} inputs,
+     * so that recipes with many ingredients stay cheap to match. Each test is evaluated at most once per input.
+     *
      * @return An array mapping inputs to tests. ret[x] = y means input[x] = test[y]
      */
     public static <T> int[] findMatches(List<T> inputs, List<? extends Predicate<T>> tests) {
@@ -27,109 +30,159 @@ public class RecipeMatcher {
         if (elements != tests.size())
             return null; // There will not be a 1:1 mapping of inputs -> tests
 
-        int[] ret = new int[elements];
-        for (int x = 0; x < elements; x++)
-            ret[x] = -1;
-
-        // [UnusedInputs] [UnusedIngredients] [IngredientMatchMask]...
-        BitSet data = new BitSet((elements + 2) * elements);
-        for (int x = 0; x < elements; x++) {
-            int matched = 0;
-            int offset = (x + 2) * elements;
-            Predicate<T> test = tests.get(x);
+        Workspace workspace = WORKSPACE.get();
+        if (workspace.inUse) // A test is matching another recipe, don't clobber the outer workspace
+            workspace = new Workspace();
+        workspace.inUse = true;
+        try {
+            return workspace.findMatches(inputs, tests, elements);
+        } finally {
+            workspace.inUse = false;
+        }
+    }
 
-            for (int y = 0; y < elements; y++) {
-                if (data.get(y))
-                    continue;
+    /**
+     * Reusable arrays for {@link #findMatches}, one per thread.
+     */
+    private static final class Workspace {
+        private static final int UNMATCHED = -1;
+        private static final int INFINITY = Integer.MAX_VALUE;
+
+        private boolean inUse;
+        private int words;
+        // Row of bits per test, with the inputs it accepts
+        private long[] adjacency = new long[0];
+        private long[] matchedInputs = new long[0];
+        private int[] testToInput = new int[0];
+        private int[] inputToTest = new int[0];
+        private int[] distance = new int[0];
+        private int[] queue = new int[0];
+
+        private void ensureCapacity(int elements) {
+            words = (elements + Long.SIZE - 1) / Long.SIZE;
+            if (adjacency.length < elements * words)
+                adjacency = new long[elements * words];
+            if (matchedInputs.length < words)
+                matchedInputs = new long[words];
+            if (testToInput.length < elements) {
+                testToInput = new int[elements];
+                inputToTest = new int[elements];
+                distance = new int[elements];
+                queue = new int[elements];
+            }
+        }
 
-                if (test.test(inputs.get(y))) {
-                    data.set(offset + y);
-                    matched++;
+        private <T> int[] findMatches(List<T> inputs, List<? extends Predicate<T>> tests, int elements) {
+            ensureCapacity(elements);
+            Arrays.fill(adjacency, 0, elements * words, 0L);
+            Arrays.fill(matchedInputs, 0, words, 0L);
+            Arrays.fill(testToInput, 0, elements, UNMATCHED);
+            Arrays.fill(inputToTest, 0, elements, UNMATCHED);
+
+            int matchedCount = 0;
+            for (int test = 0; test < elements; test++) {
+                Predicate<T> predicate = tests.get(test);
+                int row = test * words;
+                boolean matched = false;
+
+                for (int input = 0; input < elements; input++) {
+                    if (predicate.test(inputs.get(input))) {
+                        adjacency[row + (input >>> 6)] |= 1L << input;
+                        matched = true;
+                        // Greedy initial matching, which is often already complete
+                        if (testToInput[test] == UNMATCHED && inputToTest[input] == UNMATCHED) {
+                            testToInput[test] = input;
+                            inputToTest[input] = test;
+                            matchedCount++;
+                        }
+                    }
                 }
-            }
 
-            if (matched == 0)
-                return null; //We have an test that matched non of the inputs
+                if (!matched)
+                    return null; //We have an test that matched non of the inputs
 
-            if (matched == 1) {
-                if (!claim(ret, data, x, elements))
-                    return null; //We failed to claim this index, which means it caused something else to go to 0 matches, which makes the whole thing fail
+                for (int word = 0; word < words; word++)
+                    matchedInputs[word] |= adjacency[row + word];
             }
-        }
 
-        if (data.nextClearBit(0) >= elements) //All items have been used, which means all tests have a match!
-            return ret;
-
-        // We should be in a state where multiple tests are satified by multiple inputs. So we need to try a branching recursive test.
-        // However for performance reasons, we should probably make that check a sub-set of the entire graph.
-        if (backtrack(data, ret, 0, elements))
-            return ret;
-
-        return null; //Backtrack failed, no matches, we cry and go home now :(
-    }
+            for (int input = 0; input < elements; input++) {
+                if ((matchedInputs[input >>> 6] & (1L << input)) == 0)
+                    return null; //We have an input that matched none of the tests
+            }
 
-    // This is bad... need to think of a better cascade, recursion instead of stack?
-    private static boolean claim(int[] ret, BitSet data, int claimed, int elements) {
-        Queue<Integer> pending = new LinkedList<Integer>();
-        pending.add(claimed);
-
-        while (pending.peek() != null) {
-            int test = pending.poll();
-            int offset = (test + 2) * elements;
-            int used = data.nextSetBit(offset) - offset;
-
-            if (used >= elements || used < 0)
-                throw new IllegalStateException("What? We matched something, but it wasn't set in the range of this test! Test: " + test + " Used: " + used);
-
-            data.set(used);
-            data.set(elements + test);
-            ret[used] = test;
-
-            for (int x = 0; x < elements; x++) {
-                offset = (x + 2) * elements;
-                if (data.get(offset + used) && !data.get(elements + x)) {
-                    data.clear(offset + used);
-                    int count = 0;
-                    for (int y = offset; y < offset + elements; y++)
-                        if (data.get(y))
-                            count++;
-
-                    if (count == 0)
-                        return false; //Claiming this caused another test to lose its last match..
-
-                    if (count == 1)
-                        pending.add(x);
+            while (matchedCount < elements && buildLayers(elements)) {
+                for (int test = 0; test < elements; test++) {
+                    if (testToInput[test] == UNMATCHED && augment(test))
+                        matchedCount++;
                 }
             }
-        }
-
-        return true;
-    }
 
-    //We use recursion here, why? Because I feel like it. Also because we should only ever be working in data sets < 9
-    private static boolean backtrack(BitSet data, int[] ret, int start, int elements) {
-        int test = data.nextClearBit(elements + start) - elements;
-        if (test >= elements)
-            return true; //Could not find the next unused test.
+            if (matchedCount < elements)
+                return null; //No perfect matching exists
 
-        if (test < 0)
-            throw new IllegalStateException("This should never happen, negative test in backtrack!");
-
-        int offset = (test + 2) * elements;
-        for (int x = 0; x < elements; x++) {
-            if (!data.get(offset + x) || data.get(x))
-                continue;
-
-            data.set(x);
+            return Arrays.copyOf(inputToTest, elements);
+        }
 
-            if (backtrack(data, ret, test + 1, elements)) {
-                ret[x] = test;
-                return true;
+        /**
+         * Breadth-first search from the unmatched tests, layering the tests by the length of the shortest alternating path reaching them.
+         *
+         * @return whether an augmenting path exists
+         */
+        private boolean buildLayers(int elements) {
+            int head = 0;
+            int tail = 0;
+            for (int test = 0; test < elements; test++) {
+                if (testToInput[test] == UNMATCHED) {
+                    distance[test] = 0;
+                    queue[tail++] = test;
+                } else {
+                    distance[test] = INFINITY;
+                }
             }
 
-            data.clear(x);
+            boolean found = false;
+            while (head < tail) {
+                int test = queue[head++];
+                int row = test * words;
+                for (int word = 0; word < words; word++) {
+                    long bits = adjacency[row + word];
+                    while (bits != 0) {
+                        int input = (word << 6) + Long.numberOfTrailingZeros(bits);
+                        bits &= bits - 1;
+                        int next = inputToTest[input];
+                        if (next == UNMATCHED) {
+                            found = true;
+                        } else if (distance[next] == INFINITY) {
+                            distance[next] = distance[test] + 1;
+                            queue[tail++] = next;
+                        }
+                    }
+                }
+            }
+            return found;
         }
 
-        return false;
+        /**
+         * Depth-first search for an augmenting path along the layers, flipping the matching along it if found.
+         * The depth is bounded by the number of tests.
+         */
+        private boolean augment(int test) {
+            int row = test * words;
+            for (int word = 0; word < words; word++) {
+                long bits = adjacency[row + word];
+                while (bits != 0) {
+                    int input = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    int next = inputToTest[input];
+                    if (next == UNMATCHED || (distance[next] == distance[test] + 1 && augment(next))) {
+                        testToInput[test] = input;
+                        inputToTest[input] = test;
+                        return true;
+                    }
+                }
+            }
+            distance[test] = INFINITY;
+            return false;
+        }
     }
 }
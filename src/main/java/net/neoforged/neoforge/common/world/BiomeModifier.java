@@ -15,6 +15,7 @@ import net.minecraft.resources.RegistryFileCodec;
 import net.minecraft.resources.RegistryOps;
 import net.minecraft.world.level.biome.Biome;
 import net.neoforged.neoforge.registries.NeoForgeRegistries;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * JSON-serializable biome modifier.
@@ -63,6 +64,17 @@ public interface BiomeModifier {
      */
     void modify(Holder<Biome> biome, Phase phase, ModifiableBiomeInfo.BiomeInfo.Builder builder);
 
+    /**
+     * {@return the biomes that this modifier may modify, or {@code null} if it may modify any biome}
+     *
+     * <p>Biome modifiers are only applied to the biomes of this set, so the other biomes can skip this modifier
+     * without calling {@link #modify}. Biomes of this set are still passed to {@link #modify} for every phase.
+     */
+    @Nullable
+    default HolderSet<Biome> targetBiomes() {
+        return null;
+    }
+
     /**
      * @return the codec which serializes and deserializes this biome modifier
      */
@@ -54,6 +54,11 @@ public final class BiomeModifiers {
             }
         }
 
+        @Override
+        public HolderSet<Biome> targetBiomes() {
+            return this.biomes;
+        }
+
         @Override
         public MapCodec<? extends BiomeModifier> codec() {
             return NeoForgeMod.ADD_FEATURES_BIOME_MODIFIER_TYPE.get();
@@ -98,6 +103,11 @@ public final class BiomeModifiers {
             }
         }
 
+        @Override
+        public HolderSet<Biome> targetBiomes() {
+            return this.biomes;
+        }
+
         @Override
         public MapCodec<? extends BiomeModifier> codec() {
             return NeoForgeMod.REMOVE_FEATURES_BIOME_MODIFIER_TYPE.get();
@@ -168,6 +178,11 @@ public final class BiomeModifiers {
             }
         }
 
+        @Override
+        public HolderSet<Biome> targetBiomes() {
+            return this.biomes;
+        }
+
         @Override
         public MapCodec<? extends BiomeModifier> codec() {
             return NeoForgeMod.ADD_SPAWNS_BIOME_MODIFIER_TYPE.get();
@@ -201,6 +216,11 @@ public final class BiomeModifiers {
             }
         }
 
+        @Override
+        public HolderSet<Biome> targetBiomes() {
+            return this.biomes;
+        }
+
         @Override
         public MapCodec<? extends BiomeModifier> codec() {
             return NeoForgeMod.REMOVE_SPAWNS_BIOME_MODIFIER_TYPE.get();
@@ -233,6 +253,11 @@ public final class BiomeModifiers {
             }
         }
 
+        @Override
+        public HolderSet<Biome> targetBiomes() {
+            return this.biomes;
+        }
+
         @Override
         public MapCodec<? extends BiomeModifier> codec() {
             return NeoForgeMod.ADD_CARVERS_BIOME_MODIFIER_TYPE.get();
@@ -277,6 +302,11 @@ public final class BiomeModifiers {
             }
         }
 
+        @Override
+        public HolderSet<Biome> targetBiomes() {
+            return this.biomes;
+        }
+
         @Override
         public MapCodec<? extends BiomeModifier> codec() {
             return NeoForgeMod.REMOVE_CARVERS_BIOME_MODIFIER_TYPE.get();
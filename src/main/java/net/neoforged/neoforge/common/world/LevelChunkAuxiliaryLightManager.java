@@ -5,18 +5,23 @@
 
 package net.neoforged.neoforge.common.world;
 
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
+import net.minecraft.core.SectionPos;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
 import net.minecraft.network.protocol.game.ClientboundBundlePacket;
 import net.minecraft.network.protocol.game.ClientboundLevelChunkWithLightPacket;
+import net.minecraft.server.TickTask;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.util.Mth;
 import net.minecraft.world.level.chunk.LevelChunk;
 import net.minecraft.world.level.lighting.LightEngine;
@@ -25,71 +30,293 @@ import net.neoforged.neoforge.network.payload.AuxiliaryLightDataPayload;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
+/**
+ * Stores the auxiliary light of a chunk in one nibble array per chunk section, like vanilla's {@link net.minecraft.world.level.chunk.DataLayer}.
+ * Arrays are only allocated for the sections that contain auxiliary light, and are released when the last light of the section is removed.
+ *
+ * <p>Lights are written on the main thread of each side, and may be read concurrently by the light engine.
+ *
+ * <p>On the server, the sections that changed during a tick are sent to the players tracking the chunk once the tick is over.
+ */
 @ApiStatus.Internal
 public final class LevelChunkAuxiliaryLightManager implements AuxiliaryLightManager, INBTSerializable<ListTag> {
     public static final String LIGHT_NBT_KEY = "neoforge:aux_lights";
+    public static final int SECTION_DATA_SIZE = 2048;
 
     private final LevelChunk owner;
-    private final Map<BlockPos, Byte> lights = new ConcurrentHashMap<>();
+    /**
+     * Light data by section index, allocated on first use.
+     */
+    @Nullable
+    private volatile AtomicReferenceArray<byte[]> sections;
+    /**
+     * Number of positions with a non-zero light in each section. Only accessed by the main thread.
+     */
+    @Nullable
+    private int[] lightCounts;
+    /**
+     * Sections that changed since they were last sent to the tracking players. Only used on the server.
+     */
+    private final BitSet dirtySections = new BitSet();
+    private boolean syncScheduled;
 
     public LevelChunkAuxiliaryLightManager(LevelChunk owner) {
         this.owner = owner;
     }
 
+    private static int nibbleIndex(BlockPos pos) {
+        return SectionPos.sectionRelative(pos.getY()) << 8 | SectionPos.sectionRelative(pos.getZ()) << 4 | SectionPos.sectionRelative(pos.getX());
+    }
+
+    private static int getNibble(byte[] data, int index) {
+        return data[index >> 1] >> ((index & 1) << 2) & 0xF;
+    }
+
+    private static void setNibble(byte[] data, int index, int value) {
+        int shift = (index & 1) << 2;
+        data[index >> 1] = (byte) (data[index >> 1] & ~(0xF << shift) | value << shift);
+    }
+
+    private AtomicReferenceArray<byte[]> getOrCreateSections() {
+        var sections = this.sections;
+        if (sections == null) {
+            lightCounts = new int[owner.getSectionsCount()];
+            this.sections = sections = new AtomicReferenceArray<>(owner.getSectionsCount());
+        }
+        return sections;
+    }
+
     @Override
     public void setLightAt(BlockPos pos, int value) {
-        pos = pos.immutable();
         value = Mth.clamp(value, 0, LightEngine.MAX_LEVEL);
+        int sectionIndex = owner.getSectionIndex(pos.getY());
+        if (sectionIndex < 0 || sectionIndex >= owner.getSectionsCount()) {
+            return;
+        }
 
-        Byte oldValue;
-        if (value > 0) {
-            oldValue = lights.put(pos, (byte) value);
-        } else {
-            oldValue = lights.remove(pos);
+        var sections = value > 0 ? getOrCreateSections() : this.sections;
+        if (sections == null) {
+            return;
+        }
+        byte[] data = sections.get(sectionIndex);
+        if (data == null) {
+            if (value == 0) {
+                return;
+            }
+            data = new byte[SECTION_DATA_SIZE];
+            sections.set(sectionIndex, data);
+        }
+
+        int index = nibbleIndex(pos);
+        int oldValue = getNibble(data, index);
+        if (oldValue == value) {
+            return;
         }
-        if (Objects.requireNonNullElse(oldValue, (byte) 0) != value) {
-            owner.getLevel().getChunkSource().getLightEngine().checkBlock(pos);
-            owner.setUnsaved(true);
+        setNibble(data, index, value);
+        if (oldValue == 0) {
+            lightCounts[sectionIndex]++;
+        } else if (value == 0 && --lightCounts[sectionIndex] == 0) {
+            sections.set(sectionIndex, null);
         }
+
+        owner.getLevel().getChunkSource().getLightEngine().checkBlock(pos.immutable());
+        owner.setUnsaved(true);
+        markDirty(sectionIndex);
     }
 
     @Override
     public int getLightAt(BlockPos pos) {
-        return lights.getOrDefault(pos, (byte) 0);
+        var sections = this.sections;
+        if (sections == null) {
+            return 0;
+        }
+        int sectionIndex = owner.getSectionIndex(pos.getY());
+        if (sectionIndex < 0 || sectionIndex >= sections.length()) {
+            return 0;
+        }
+        byte[] data = sections.get(sectionIndex);
+        return data == null ? 0 : getNibble(data, nibbleIndex(pos));
     }
 
+    /**
+     * Serializes the light as one compound per non-empty section, with the section Y coordinate and the nibble array.
+     */
     @Nullable
     @Override
     public ListTag serializeNBT(HolderLookup.Provider provider) {
-        if (lights.isEmpty()) {
+        var sections = this.sections;
+        if (sections == null) {
             return null;
         }
 
         ListTag list = new ListTag();
-        lights.forEach((pos, light) -> {
-            CompoundTag tag = new CompoundTag();
-            tag.putLong("pos", pos.asLong());
-            tag.putByte("level", light);
-            list.add(tag);
-        });
-        return list;
+        for (int i = 0; i < sections.length(); i++) {
+            byte[] data = sections.get(i);
+            if (data != null) {
+                CompoundTag tag = new CompoundTag();
+                tag.putInt("y", owner.getSectionYFromSectionIndex(i));
+                tag.putByteArray("data", data.clone());
+                list.add(tag);
+            }
+        }
+        return list.isEmpty() ? null : list;
     }
 
     @Override
     public void deserializeNBT(HolderLookup.Provider provider, ListTag list) {
         for (int i = 0; i < list.size(); i++) {
             CompoundTag tag = list.getCompound(i);
-            lights.put(BlockPos.of(tag.getLong("pos")), tag.getByte("level"));
+            if (tag.contains("pos", Tag.TAG_LONG)) {
+                // Format used before lights were stored per section: one compound per light
+                setLightWithoutUpdate(BlockPos.of(tag.getLong("pos")), tag.getByte("level"));
+            } else {
+                int sectionIndex = owner.getSectionIndexFromSectionY(tag.getInt("y"));
+                byte[] data = tag.getByteArray("data");
+                if (sectionIndex >= 0 && sectionIndex < owner.getSectionsCount() && data.length == SECTION_DATA_SIZE) {
+                    setSection(sectionIndex, data);
+                }
+            }
+        }
+    }
+
+    private void setLightWithoutUpdate(BlockPos pos, int value) {
+        int sectionIndex = owner.getSectionIndex(pos.getY());
+        value = Mth.clamp(value, 0, LightEngine.MAX_LEVEL);
+        if (value == 0 || sectionIndex < 0 || sectionIndex >= owner.getSectionsCount()) {
+            return;
+        }
+        var sections = getOrCreateSections();
+        byte[] data = sections.get(sectionIndex);
+        if (data == null) {
+            data = new byte[SECTION_DATA_SIZE];
+            sections.set(sectionIndex, data);
+        }
+        int index = nibbleIndex(pos);
+        if (getNibble(data, index) == 0) {
+            lightCounts[sectionIndex]++;
+        }
+        setNibble(data, index, value);
+    }
+
+    /**
+     * Replaces the light of a section.
+     *
+     * @param data the new nibble array, which must not be modified afterward, or {@code null} to clear the section
+     */
+    private void setSection(int sectionIndex, @Nullable byte[] data) {
+        int count = 0;
+        if (data != null) {
+            for (int i = 0; i < SECTION_DATA_SIZE * 2; i++) {
+                if (getNibble(data, i) != 0) {
+                    count++;
+                }
+            }
+        }
+        if (count == 0) {
+            var sections = this.sections;
+            if (sections != null) {
+                sections.set(sectionIndex, null);
+                lightCounts[sectionIndex] = 0;
+            }
+        } else {
+            getOrCreateSections().set(sectionIndex, data);
+            lightCounts[sectionIndex] = count;
         }
     }
 
+    private void markDirty(int sectionIndex) {
+        if (!(owner.getLevel() instanceof ServerLevel level)) {
+            return;
+        }
+        dirtySections.set(sectionIndex);
+        if (!syncScheduled) {
+            syncScheduled = true;
+            // Runs once the current tick is over, so that all the changes of the tick are sent together
+            level.getServer().tell(new TickTask(0, this::sendDirtySections));
+        }
+    }
+
+    private void sendDirtySections() {
+        syncScheduled = false;
+        if (dirtySections.isEmpty()) {
+            return;
+        }
+        var payload = createPayload(false, dirtySections);
+        dirtySections.clear();
+
+        var level = (ServerLevel) owner.getLevel();
+        for (var player : level.getChunkSource().chunkMap.getPlayers(owner.getPos(), false)) {
+            if (player.connection.hasChannel(AuxiliaryLightDataPayload.TYPE)) {
+                player.connection.send(payload);
+            }
+        }
+    }
+
+    private AuxiliaryLightDataPayload createPayload(boolean fullSync, @Nullable BitSet sectionIndices) {
+        var sections = this.sections;
+        List<AuxiliaryLightDataPayload.Section> entries = new ArrayList<>();
+        if (sections != null) {
+            for (int i = 0; i < sections.length(); i++) {
+                byte[] data = sections.get(i);
+                if (sectionIndices == null ? data != null : sectionIndices.get(i)) {
+                    entries.add(new AuxiliaryLightDataPayload.Section(i, Optional.ofNullable(data).map(byte[]::clone)));
+                }
+            }
+        }
+        return new AuxiliaryLightDataPayload(owner.getPos(), fullSync, entries);
+    }
+
     public Packet<?> sendLightDataTo(ClientboundLevelChunkWithLightPacket chunkPacket) {
-        return new ClientboundBundlePacket(List.of(chunkPacket, new ClientboundCustomPayloadPacket(
-                new AuxiliaryLightDataPayload(owner.getPos(), Map.copyOf(lights)))));
+        return new ClientboundBundlePacket(List.of(chunkPacket, new ClientboundCustomPayloadPacket(createPayload(true, null))));
     }
 
-    public void handleLightDataSync(Map<BlockPos, Byte> lights) {
-        this.lights.clear();
-        this.lights.putAll(lights);
+    /**
+     * {@return whether the synced section can be applied to this chunk}
+     *
+     * <p>The codec only limits the maximum length of the nibble array, so shorter arrays must be skipped here.
+     */
+    private boolean isValid(AuxiliaryLightDataPayload.Section section) {
+        return section.index() >= 0 && section.index() < owner.getSectionsCount() && section.data().map(data -> data.length == SECTION_DATA_SIZE).orElse(true);
+    }
+
+    public void handleLightDataSync(AuxiliaryLightDataPayload payload) {
+        if (payload.fullSync()) {
+            // The chunk was just sent, so its light has not been computed yet
+            var sections = this.sections;
+            if (sections != null) {
+                for (int i = 0; i < sections.length(); i++) {
+                    setSection(i, null);
+                }
+            }
+            for (var section : payload.sections()) {
+                if (isValid(section)) {
+                    setSection(section.index(), section.data().orElse(null));
+                }
+            }
+            return;
+        }
+
+        for (var section : payload.sections()) {
+            if (!isValid(section)) {
+                continue;
+            }
+            int sectionIndex = section.index();
+            var sections = this.sections;
+            byte[] oldData = sections == null ? null : sections.get(sectionIndex);
+            byte[] newData = section.data().orElse(null);
+            setSection(sectionIndex, newData);
+
+            // Relight the positions whose light changed
+            var origin = SectionPos.of(owner.getPos(), owner.getSectionYFromSectionIndex(sectionIndex)).origin();
+            var pos = new BlockPos.MutableBlockPos();
+            for (int i = 0; i < SECTION_DATA_SIZE * 2; i++) {
+                int oldValue = oldData == null ? 0 : getNibble(oldData, i);
+                int newValue = newData == null ? 0 : getNibble(newData, i);
+                if (oldValue != newValue) {
+                    pos.setWithOffset(origin, i & 15, i >> 8, i >> 4 & 15);
+                    owner.getLevel().getChunkSource().getLightEngine().checkBlock(pos.immutable());
+                }
+            }
+        }
     }
 }
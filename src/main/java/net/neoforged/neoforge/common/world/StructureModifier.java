@@ -16,6 +16,7 @@ import net.minecraft.resources.RegistryOps;
 import net.minecraft.world.level.levelgen.structure.Structure;
 import net.neoforged.neoforge.common.world.ModifiableStructureInfo.StructureInfo;
 import net.neoforged.neoforge.registries.NeoForgeRegistries;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * JSON-serializable structure modifier.
@@ -64,6 +65,17 @@ public interface StructureModifier {
      */
     void modify(Holder<Structure> structure, Phase phase, StructureInfo.Builder builder);
 
+    /**
+     * {@return the structures that this modifier may modify, or {@code null} if it may modify any structure}
+     *
+     * <p>Structure modifiers are only applied to the structures of this set, so the other structures can skip this modifier
+     * without calling {@link #modify}. Structures of this set are still passed to {@link #modify} for every phase.
+     */
+    @Nullable
+    default HolderSet<Structure> targetStructures() {
+        return null;
+    }
+
     /**
      * @return the codec which serializes and deserializes this structure modifier
      */
@@ -103,6 +103,7 @@ import net.minecraft.world.phys.HitResult;
 import net.minecraft.world.phys.Vec3;
 import net.neoforged.fml.ModLoader;
 import net.neoforged.neoforge.common.EffectCure;
+import net.neoforged.neoforge.common.EventListenerTracker;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.common.ToolAction;
 import net.neoforged.neoforge.common.extensions.IFluidStateExtension;
@@ -914,61 +915,89 @@ public class EventHooks {
         return NeoForge.EVENT_BUS.post(new PlayerHeartTypeEvent(player, heartType)).getType();
     }
 
+    private static final EventListenerTracker.Query ENTITY_TICK_PRE_LISTENERS = EventListenerTracker.query(EntityTickEvent.Pre.class);
+    private static final EventListenerTracker.Query ENTITY_TICK_POST_LISTENERS = EventListenerTracker.query(EntityTickEvent.Post.class);
+    private static final EventListenerTracker.Query PLAYER_TICK_PRE_LISTENERS = EventListenerTracker.query(PlayerTickEvent.Pre.class);
+    private static final EventListenerTracker.Query PLAYER_TICK_POST_LISTENERS = EventListenerTracker.query(PlayerTickEvent.Post.class);
+    private static final EventListenerTracker.Query LEVEL_TICK_PRE_LISTENERS = EventListenerTracker.query(LevelTickEvent.Pre.class);
+    private static final EventListenerTracker.Query LEVEL_TICK_POST_LISTENERS = EventListenerTracker.query(LevelTickEvent.Post.class);
+
     /**
      * Fires {@link EntityTickEvent.Pre}. Called from the head of {@link LivingEntity#tick()}.
      * 
      * @param entity The entity being ticked
      * @return The event
+     * @see #isEntityTickCanceled(Entity)
      */
     public static EntityTickEvent.Pre fireEntityTickPre(Entity entity) {
         return NeoForge.EVENT_BUS.post(new EntityTickEvent.Pre(entity));
     }
 
     /**
-     * Fires {@link EntityTickEvent.Post}. Called from the tail of {@link LivingEntity#tick()}.
+     * Fires {@link EntityTickEvent.Pre}, unless nobody listens to it. Called from the head of {@link LivingEntity#tick()}.
+     * 
+     * @param entity The entity being ticked
+     * @return {@code true} if the tick was canceled
+     */
+    public static boolean isEntityTickCanceled(Entity entity) {
+        return ENTITY_TICK_PRE_LISTENERS.hasListeners() && fireEntityTickPre(entity).isCanceled();
+    }
+
+    /**
+     * Fires {@link EntityTickEvent.Post}, unless nobody listens to it. Called from the tail of {@link LivingEntity#tick()}.
      * 
      * @param entity The entity being ticked
      */
     public static void fireEntityTickPost(Entity entity) {
-        NeoForge.EVENT_BUS.post(new EntityTickEvent.Post(entity));
+        if (ENTITY_TICK_POST_LISTENERS.hasListeners()) {
+            NeoForge.EVENT_BUS.post(new EntityTickEvent.Post(entity));
+        }
     }
 
     /**
-     * Fires {@link PlayerTickEvent.Pre}. Called from the head of {@link Player#tick()}.
+     * Fires {@link PlayerTickEvent.Pre}, unless nobody listens to it. Called from the head of {@link Player#tick()}.
      * 
      * @param player The player being ticked
      */
     public static void firePlayerTickPre(Player player) {
-        NeoForge.EVENT_BUS.post(new PlayerTickEvent.Pre(player));
+        if (PLAYER_TICK_PRE_LISTENERS.hasListeners()) {
+            NeoForge.EVENT_BUS.post(new PlayerTickEvent.Pre(player));
+        }
     }
 
     /**
-     * Fires {@link PlayerTickEvent.Post}. Called from the tail of {@link Player#tick()}.
+     * Fires {@link PlayerTickEvent.Post}, unless nobody listens to it. Called from the tail of {@link Player#tick()}.
      * 
      * @param player The player being ticked
      */
     public static void firePlayerTickPost(Player player) {
-        NeoForge.EVENT_BUS.post(new PlayerTickEvent.Post(player));
+        if (PLAYER_TICK_POST_LISTENERS.hasListeners()) {
+            NeoForge.EVENT_BUS.post(new PlayerTickEvent.Post(player));
+        }
     }
 
     /**
-     * Fires {@link LevelTickEvent.Pre}. Called from {@link Minecraft#tick()} and {@link MinecraftServer#tickChildren(BooleanSupplier)} just before the try block for level tick is entered.
+     * Fires {@link LevelTickEvent.Pre}, unless nobody listens to it. Called from {@link Minecraft#tick()} and {@link MinecraftServer#tickChildren(BooleanSupplier)} just before the try block for level tick is entered.
      * 
      * @param level    The level being ticked
      * @param haveTime The time supplier, indicating if there is remaining time to do work in the current tick.
      */
     public static void fireLevelTickPre(Level level, BooleanSupplier haveTime) {
-        NeoForge.EVENT_BUS.post(new LevelTickEvent.Pre(haveTime, level));
+        if (LEVEL_TICK_PRE_LISTENERS.hasListeners()) {
+            NeoForge.EVENT_BUS.post(new LevelTickEvent.Pre(haveTime, level));
+        }
     }
 
     /**
-     * Fires {@link LevelTickEvent.Post}. Called from {@link Minecraft#tick()} and {@link MinecraftServer#tickChildren(BooleanSupplier)} just after the try block for level tick is exited.
+     * Fires {@link LevelTickEvent.Post}, unless nobody listens to it. Called from {@link Minecraft#tick()} and {@link MinecraftServer#tickChildren(BooleanSupplier)} just after the try block for level tick is exited.
      * 
      * @param level    The level being ticked
      * @param haveTime The time supplier, indicating if there is remaining time to do work in the current tick.
      */
     public static void fireLevelTickPost(Level level, BooleanSupplier haveTime) {
-        NeoForge.EVENT_BUS.post(new LevelTickEvent.Post(haveTime, level));
+        if (LEVEL_TICK_POST_LISTENERS.hasListeners()) {
+            NeoForge.EVENT_BUS.post(new LevelTickEvent.Post(haveTime, level));
+        }
     }
 
     /**
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.fluids;
+
+import java.util.Arrays;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.Vec3;
+import net.neoforged.neoforge.registries.NeoForgeRegistries;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Scratch space used by {@link Entity#updateFluidHeightAndDoFluidPushing()} to accumulate
+ * the height and flow of every {@link FluidType} an entity is touching, without allocating.
+ *
+ * <p>Values are stored in arrays indexed by the registry id of the fluid type.
+ * Fluid types are kept in the order in which they were first touched,
+ * so that the resulting motion is applied in the same order as before.
+ *
+ * <p>One buffer is kept per thread. A buffer that is already in use (re-entrant call) is never shared:
+ * a temporary buffer is handed out instead.
+ */
+@ApiStatus.Internal
+public final class FluidPushBuffer {
+    private static final ThreadLocal<FluidPushBuffer> BUFFERS = ThreadLocal.withInitial(FluidPushBuffer::new);
+
+    private FluidType[] types = new FluidType[0];
+    private double[] heights = new double[0];
+    private double[] flowX = new double[0];
+    private double[] flowY = new double[0];
+    private double[] flowZ = new double[0];
+    private int[] blockCounts = new int[0];
+    private boolean[] touched = new boolean[0];
+    /**
+     * Ids of the touched fluid types, in the order in which they were first touched.
+     */
+    private int[] touchedIds = new int[0];
+    private int touchedCount;
+    private boolean inUse;
+
+    // Entities usually touch a single fluid type, which saves the registry lookup for every fluid block
+    @Nullable
+    private FluidType lastType;
+    private int lastId;
+
+    private FluidPushBuffer() {}
+
+    /**
+     * {@return an empty buffer for the current thread, which must be {@linkplain #release() released} after use}
+     */
+    public static FluidPushBuffer acquire() {
+        var buffer = BUFFERS.get();
+        if (buffer.inUse) {
+            buffer = new FluidPushBuffer();
+        }
+        buffer.inUse = true;
+        return buffer;
+    }
+
+    /**
+     * Clears the buffer and allows it to be acquired again.
+     */
+    public void release() {
+        for (int i = 0; i < touchedCount; ++i) {
+            int id = touchedIds[i];
+            types[id] = null;
+            heights[id] = 0;
+            flowX[id] = 0;
+            flowY[id] = 0;
+            flowZ[id] = 0;
+            blockCounts[id] = 0;
+            touched[id] = false;
+        }
+        touchedCount = 0;
+        lastType = null;
+        inUse = false;
+    }
+
+    /**
+     * Marks a fluid type as touched.
+     *
+     * @return the index to use for the other methods of this buffer
+     */
+    public int touch(FluidType type) {
+        int id;
+        if (type == lastType) {
+            id = lastId;
+        } else {
+            id = NeoForgeRegistries.FLUID_TYPES.getId(type);
+            if (id < 0) {
+                throw new IllegalArgumentException("Unregistered fluid type: " + type);
+            }
+            lastType = type;
+            lastId = id;
+        }
+
+        if (id >= touched.length) {
+            grow(Math.max(id + 1, NeoForgeRegistries.FLUID_TYPES.size()));
+        }
+        if (!touched[id]) {
+            touched[id] = true;
+            types[id] = type;
+            touchedIds[touchedCount++] = id;
+        }
+        return id;
+    }
+
+    private void grow(int size) {
+        types = Arrays.copyOf(types, size);
+        heights = Arrays.copyOf(heights, size);
+        flowX = Arrays.copyOf(flowX, size);
+        flowY = Arrays.copyOf(flowY, size);
+        flowZ = Arrays.copyOf(flowZ, size);
+        blockCounts = Arrays.copyOf(blockCounts, size);
+        touched = Arrays.copyOf(touched, size);
+        touchedIds = Arrays.copyOf(touchedIds, size);
+    }
+
+    /**
+     * {@return the number of touched fluid types}
+     */
+    public int size() {
+        return touchedCount;
+    }
+
+    /**
+     * {@return the index of the n-th touched fluid type}
+     */
+    public int indexAt(int n) {
+        return touchedIds[n];
+    }
+
+    public FluidType type(int index) {
+        return types[index];
+    }
+
+    public double height(int index) {
+        return heights[index];
+    }
+
+    /**
+     * Raises the height of a fluid type to the given height, if it is higher than the current height.
+     */
+    public void raiseHeight(int index, double height) {
+        heights[index] = Math.max(height, heights[index]);
+    }
+
+    /**
+     * Adds the flow of a single fluid block, scaled by the given factor.
+     */
+    public void addFlow(int index, Vec3 flow, double scale) {
+        flowX[index] += flow.x * scale;
+        flowY[index] += flow.y * scale;
+        flowZ[index] += flow.z * scale;
+        blockCounts[index]++;
+    }
+
+    public int blockCount(int index) {
+        return blockCounts[index];
+    }
+
+    /**
+     * {@return the accumulated flow of a fluid type, or {@link Vec3#ZERO} if it has none}
+     */
+    public Vec3 flow(int index) {
+        double x = flowX[index];
+        double y = flowY[index];
+        double z = flowZ[index];
+        return x == 0 && y == 0 && z == 0 ? Vec3.ZERO : new Vec3(x, y, z);
+    }
+}
@@ -14,6 +14,7 @@ import net.minecraft.world.item.component.ItemContainerContents;
 import net.neoforged.neoforge.capabilities.ICapabilityProvider;
 import net.neoforged.neoforge.capabilities.RegisterCapabilitiesEvent;
 import net.neoforged.neoforge.common.MutableDataComponentHolder;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Variant of {@link ItemStackHandler} for use with data components.
@@ -22,6 +23,9 @@ import net.neoforged.neoforge.common.MutableDataComponentHolder;
  * <p>
  * To use this class, register a new {@link DataComponentType} which holds an {@link ItemContainerContents} for your item.
  * Then reference that component from your {@link ICapabilityProvider} passed to {@link RegisterCapabilitiesEvent#registerItem} to create an instance of this class.
+ * <p>
+ * Callers performing many modifications in a row, such as automation moving items one stack at a time, can use {@link #beginBatch()}
+ * to perform them against a working copy of the contents, and write the component only once.
  * 
  * @implNote All functions in this class should attempt to minimize component read/writes to avoid unnecessary churn, noting that the component can never be cached.
  */
@@ -30,6 +34,16 @@ public class ComponentItemHandler implements IItemHandlerModifiable {
     protected final DataComponentType<ItemContainerContents> component;
     protected final int size;
 
+    /**
+     * The working copy of the contents while a {@link Batch} is open, or {@code null} otherwise.
+     */
+    @Nullable
+    private NonNullList<ItemStack> batchItems;
+    /**
+     * The stacks that were stored in each slot when the open {@link Batch} first modified them, or {@code null} for unmodified slots.
+     */
+    private ItemStack @Nullable [] batchOriginals;
+
     /**
      * Creates a new {@link ComponentItemHandler} with target size. If the existing component is smaller than the given size, it will be expanded on write.
      * 
@@ -169,6 +183,9 @@ public class ComponentItemHandler implements IItemHandlerModifiable {
      */
     protected ItemStack getStackFromContents(ItemContainerContents contents, int slot) {
         this.validateSlotIndex(slot);
+        if (this.batchItems != null) {
+            return this.batchItems.get(slot).copy();
+        }
         return contents.getSlots() <= slot ? ItemStack.EMPTY : contents.getStackInSlot(slot);
     }
 
@@ -176,6 +193,8 @@ public class ComponentItemHandler implements IItemHandlerModifiable {
      * Performs a copy and write operation on the underlying data component, changing the stack in the target slot.
      * <p>
      * If the existing component is larger than {@link #getSlots()}, additional slots will <b>not</b> be truncated.
+     * <p>
+     * While a {@link Batch} is open, only the working copy of the batch is changed, and {@link #onContentsChanged} is deferred until the batch is committed.
      * 
      * @param contents The existing contents from {@link #getContents()}
      * @param stack    The new stack to set to the slot
@@ -183,6 +202,13 @@ public class ComponentItemHandler implements IItemHandlerModifiable {
      */
     protected void updateContents(ItemContainerContents contents, ItemStack stack, int slot) {
         this.validateSlotIndex(slot);
+        if (this.batchItems != null) {
+            ItemStack oldStack = this.batchItems.set(slot, stack.copy());
+            if (this.batchOriginals[slot] == null) {
+                this.batchOriginals[slot] = oldStack;
+            }
+            return;
+        }
         // Use the max of the contents slots and the capability slots to avoid truncating
         NonNullList<ItemStack> list = NonNullList.withSize(Math.max(contents.getSlots(), this.getSlots()), ItemStack.EMPTY);
         contents.copyInto(list);
@@ -192,6 +218,92 @@ public class ComponentItemHandler implements IItemHandlerModifiable {
         this.onContentsChanged(slot, oldStack, stack);
     }
 
+    /**
+     * Begins a batch of modifications. Until the batch is committed or closed, all reads and writes of this handler use a mutable working copy of the contents,
+     * so that many modifications only cost a single read and a single write of the data component.
+     * <p>
+     * The batch should be used in a try-with-resources block. Closing it without committing it discards the modifications:
+     * 
+     * <pre>{@code
+     * try (var batch = handler.beginBatch()) {
+     *     for (ItemStack stack : stacks) {
+     *         ItemHandlerHelper.insertItem(handler, stack, false);
+     *     }
+     *     batch.commit();
+     * }
+     * }</pre>
+     * 
+     * The data component must not be modified by other means while the batch is open.
+     * 
+     * @throws IllegalStateException if a batch is already open for this handler
+     */
+    public Batch beginBatch() {
+        if (this.batchItems != null) {
+            throw new IllegalStateException("A batch is already open for this handler");
+        }
+
+        ItemContainerContents contents = this.getContents();
+        // Use the max of the contents slots and the capability slots to avoid truncating
+        NonNullList<ItemStack> list = NonNullList.withSize(Math.max(contents.getSlots(), this.getSlots()), ItemStack.EMPTY);
+        contents.copyInto(list);
+        this.batchItems = list;
+        this.batchOriginals = new ItemStack[list.size()];
+        return new Batch();
+    }
+
+    /**
+     * A batch of modifications of a {@link ComponentItemHandler}, opened with {@link #beginBatch()}.
+     */
+    public final class Batch implements AutoCloseable {
+        private boolean open = true;
+
+        private Batch() {}
+
+        /**
+         * Writes the modifications of this batch to the data component, then calls {@link #onContentsChanged} for every slot that changed.
+         * The component is not written if no slot changed.
+         */
+        public void commit() {
+            if (!this.open) {
+                throw new IllegalStateException("The batch is already closed");
+            }
+
+            NonNullList<ItemStack> items = ComponentItemHandler.this.batchItems;
+            ItemStack[] originals = ComponentItemHandler.this.batchOriginals;
+            this.close();
+
+            boolean changed = false;
+            for (int slot = 0; slot < originals.length; slot++) {
+                if (originals[slot] != null && ItemStack.matches(originals[slot], items.get(slot))) {
+                    originals[slot] = null;
+                }
+                changed |= originals[slot] != null;
+            }
+            if (!changed) {
+                return;
+            }
+
+            ComponentItemHandler.this.parent.set(ComponentItemHandler.this.component, ItemContainerContents.fromItems(items));
+            for (int slot = 0; slot < originals.length; slot++) {
+                if (originals[slot] != null) {
+                    ComponentItemHandler.this.onContentsChanged(slot, originals[slot], items.get(slot));
+                }
+            }
+        }
+
+        /**
+         * Closes this batch, discarding its modifications if it was not committed.
+         */
+        @Override
+        public void close() {
+            if (this.open) {
+                this.open = false;
+                ComponentItemHandler.this.batchItems = null;
+                ComponentItemHandler.this.batchOriginals = null;
+            }
+        }
+    }
+
     /**
      * Throws {@link UnsupportedOperationException} if the provided slot index is invalid.
      */
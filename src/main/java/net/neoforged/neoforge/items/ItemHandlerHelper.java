@@ -12,6 +12,7 @@ import net.minecraft.world.entity.item.ItemEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
+import net.neoforged.neoforge.items.wrapper.CombinedInvWrapper;
 import net.neoforged.neoforge.items.wrapper.PlayerMainInvWrapper;
 import org.jetbrains.annotations.Nullable;
 
@@ -60,6 +61,14 @@ public class ItemHandlerHelper {
             return insertItem(inventory, stack, simulate);
         }
 
+        // Subclasses may override the per-slot methods, which the direct path would bypass
+        if (inventory.getClass() == CombinedInvWrapper.class) {
+            var combined = (CombinedInvWrapper) inventory;
+            // go through each wrapped inventory directly
+            stack = combined.insertIntoSlots(stack, false, simulate);
+            return stack.isEmpty() ? ItemStack.EMPTY : combined.insertIntoSlots(stack, true, simulate);
+        }
+
         int sizeInventory = inventory.getSlots();
 
         // go through the inventory and try to fill up already existing items
@@ -90,6 +99,29 @@ public class ItemHandlerHelper {
         return stack;
     }
 
+    /**
+     * Extracts up to {@code amount} items from the first slot of the inventory that any can be extracted from.
+     *
+     * @return the extracted stack, or {@link ItemStack#EMPTY} if nothing could be extracted
+     */
+    public static ItemStack extractAny(@Nullable IItemHandler inventory, int amount, boolean simulate) {
+        if (inventory == null || amount <= 0)
+            return ItemStack.EMPTY;
+
+        if (inventory.getClass() == CombinedInvWrapper.class) {
+            return ((CombinedInvWrapper) inventory).extractAny(amount, simulate);
+        }
+
+        for (int i = 0; i < inventory.getSlots(); i++) {
+            ItemStack extracted = inventory.extractItem(i, amount, simulate);
+            if (!extracted.isEmpty()) {
+                return extracted;
+            }
+        }
+
+        return ItemStack.EMPTY;
+    }
+
     /** giveItemToPlayer without preferred slot */
     public static void giveItemToPlayer(Player player, ItemStack stack) {
         giveItemToPlayer(player, stack, -1);
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.items;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import net.neoforged.neoforge.capabilities.BlockCapabilityCache;
+import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.items.wrapper.InvWrapper;
+import net.neoforged.neoforge.items.wrapper.SidedInvWrapper;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-block entity state used by {@link VanillaInventoryCodeHooks} to speed up hopper and dropper transfers.
+ *
+ * <p>The item handlers of the insertion target and of the extraction source are tracked with a
+ * {@link BlockCapabilityCache}, instead of being looked up again every transfer.
+ * The caches are closed when the owning block entity is removed.
+ *
+ * <p>When a hopper transfer fails because the target is full or the source is empty, the side may go to sleep:
+ * it is skipped until the contents of the tracked block entity change, or until the capability is invalidated.
+ * Content changes are observed through {@link BlockEntity#setChanged()}, which notifies the neighbors of the block entity
+ * like it does for comparators. Sleeping is therefore only supported for handlers that wrap the tracked block entity itself,
+ * since other handlers might change without the block entity being notified.
+ */
+@ApiStatus.Internal
+public final class ItemTransferCache {
+    private final BlockEntity owner;
+    private final Side insertTarget = new Side();
+    private final Side extractSource = new Side();
+
+    public ItemTransferCache(IAttachmentHolder holder) {
+        if (!(holder instanceof BlockEntity blockEntity)) {
+            throw new IllegalArgumentException("Item transfer caches can only be attached to block entities");
+        }
+        this.owner = blockEntity;
+    }
+
+    /**
+     * {@return the side used to insert items into the given position}
+     */
+    Side insertTarget(ServerLevel level, BlockPos pos, Direction side) {
+        return insertTarget.track(level, pos, side);
+    }
+
+    /**
+     * {@return the side used to extract items from the given position}
+     */
+    Side extractSource(ServerLevel level, BlockPos pos, Direction side) {
+        return extractSource.track(level, pos, side);
+    }
+
+    /**
+     * Wakes up the sides that track the given position, after the contents of the block entity at that position changed.
+     */
+    void onContentsChanged(Level level, BlockPos pos) {
+        insertTarget.onContentsChanged(level, pos);
+        extractSource.onContentsChanged(level, pos);
+    }
+
+    /**
+     * Closes the capability caches, once the owning block entity is removed.
+     */
+    void close() {
+        insertTarget.close();
+        extractSource.close();
+    }
+
+    final class Side {
+        @Nullable
+        private BlockCapabilityCache<IItemHandler, @Nullable Direction> cache;
+        private boolean sleeping;
+
+        private Side track(ServerLevel level, BlockPos pos, Direction side) {
+            if (cache == null || cache.level() != level || cache.context() != side || !cache.pos().equals(pos)) {
+                close();
+                cache = BlockCapabilityCache.open(Capabilities.ItemHandler.BLOCK, level, pos, side, () -> !owner.isRemoved(), this::wakeUp);
+            }
+            return this;
+        }
+
+        private BlockCapabilityCache<IItemHandler, @Nullable Direction> cache() {
+            if (cache == null) {
+                throw new IllegalStateException("Side is not tracking any position");
+            }
+            return cache;
+        }
+
+        /**
+         * {@return the cached block capability, or {@code null} if there is none}
+         */
+        @Nullable
+        IItemHandler getCapability() {
+            return cache().getCapability();
+        }
+
+        /**
+         * {@return the block entity at the tracked position, if any}
+         */
+        @Nullable
+        BlockEntity getBlockEntity() {
+            var cache = cache();
+            return cache.level().getBlockEntity(cache.pos());
+        }
+
+        boolean isSleeping() {
+            return sleeping;
+        }
+
+        /**
+         * Puts this side to sleep, if all the content changes of the given handler are reported by the tracked block entity.
+         */
+        void sleep(IItemHandler handler) {
+            var blockEntity = getBlockEntity();
+            if (blockEntity != null && getWrappedContainer(handler) == blockEntity) {
+                sleeping = true;
+            }
+        }
+
+        void wakeUp() {
+            sleeping = false;
+        }
+
+        private void onContentsChanged(Level level, BlockPos pos) {
+            if (sleeping && cache != null && cache.level() == level && cache.pos().equals(pos)) {
+                sleeping = false;
+            }
+        }
+
+        private void close() {
+            if (cache != null) {
+                cache.close();
+                cache = null;
+            }
+            sleeping = false;
+        }
+    }
+
+    @Nullable
+    private static Object getWrappedContainer(IItemHandler handler) {
+        if (handler instanceof InvWrapper wrapper) {
+            return wrapper.getInv();
+        } else if (handler instanceof SidedInvWrapper wrapper) {
+            return wrapper.getInv();
+        }
+        return null;
+    }
+}
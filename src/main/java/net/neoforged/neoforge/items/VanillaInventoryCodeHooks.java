@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Optional;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntitySelector;
 import net.minecraft.world.item.ItemStack;
@@ -23,6 +24,7 @@ import net.minecraft.world.level.block.entity.HopperBlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.phys.AABB;
 import net.neoforged.neoforge.capabilities.Capabilities;
+import net.neoforged.neoforge.common.NeoForgeMod;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
 import org.jetbrains.annotations.Nullable;
@@ -35,33 +37,48 @@ public class VanillaInventoryCodeHooks {
      */
     @Nullable
     public static Boolean extractHook(Level level, Hopper dest) {
+        if (dest instanceof HopperBlockEntity hopper && level instanceof ServerLevel serverLevel) {
+            var source = getTransferCache(hopper).extractSource(serverLevel, BlockPos.containing(dest.getLevelX(), dest.getLevelY() + 1.0, dest.getLevelZ()), Direction.DOWN);
+            if (source.isSleeping()) {
+                return false;
+            }
+            IItemHandler handler = source.getCapability();
+            if (handler != null) {
+                boolean moved = extractFrom(handler, dest);
+                if (!moved && isEmpty(handler)) {
+                    source.sleep(handler);
+                }
+                return moved;
+            }
+        }
+
         return getSourceItemHandler(level, dest)
-                .map(itemHandlerResult -> {
-                    IItemHandler handler = itemHandlerResult.getKey();
-
-                    for (int i = 0; i < handler.getSlots(); i++) {
-                        ItemStack extractItem = handler.extractItem(i, 1, true);
-                        if (!extractItem.isEmpty()) {
-                            for (int j = 0; j < dest.getContainerSize(); j++) {
-                                ItemStack destStack = dest.getItem(j);
-                                if (dest.canPlaceItem(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack))) {
-                                    extractItem = handler.extractItem(i, 1, false);
-                                    if (destStack.isEmpty())
-                                        dest.setItem(j, extractItem);
-                                    else {
-                                        destStack.grow(1);
-                                        dest.setItem(j, destStack);
-                                    }
-                                    dest.setChanged();
-                                    return true;
-                                }
-                            }
+                .map(itemHandlerResult -> extractFrom(itemHandlerResult.getKey(), dest))
+                .orElse(null); // TODO bad null
+    }
+
+    private static boolean extractFrom(IItemHandler handler, Hopper dest) {
+        for (int i = 0; i < handler.getSlots(); i++) {
+            ItemStack extractItem = handler.extractItem(i, 1, true);
+            if (!extractItem.isEmpty()) {
+                for (int j = 0; j < dest.getContainerSize(); j++) {
+                    ItemStack destStack = dest.getItem(j);
+                    if (dest.canPlaceItem(j, extractItem) && (destStack.isEmpty() || destStack.getCount() < destStack.getMaxStackSize() && destStack.getCount() < dest.getMaxStackSize() && ItemHandlerHelper.canItemStacksStack(extractItem, destStack))) {
+                        extractItem = handler.extractItem(i, 1, false);
+                        if (destStack.isEmpty())
+                            dest.setItem(j, extractItem);
+                        else {
+                            destStack.grow(1);
+                            dest.setItem(j, destStack);
                         }
+                        dest.setChanged();
+                        return true;
                     }
+                }
+            }
+        }
 
-                    return false;
-                })
-                .orElse(null); // TODO bad null
+        return false;
     }
 
     /**
@@ -69,59 +86,125 @@ public class VanillaInventoryCodeHooks {
      */
     public static boolean dropperInsertHook(Level level, BlockPos pos, DispenserBlockEntity dropper, int slot, ItemStack stack) {
         Direction facing = level.getBlockState(pos).getValue(DropperBlock.FACING);
+        if (level instanceof ServerLevel serverLevel) {
+            // Droppers only transfer when powered, so they never sleep: every pulse attempts the transfer
+            var target = getTransferCache(dropper).insertTarget(serverLevel, pos.relative(facing), facing.getOpposite());
+            IItemHandler itemHandler = target.getCapability();
+            if (itemHandler != null) {
+                dropInto(dropper, target.getBlockEntity(), itemHandler, slot, stack);
+                return false;
+            }
+        }
+
         return getAttachedItemHandler(level, pos, facing)
                 .map(destinationResult -> {
-                    IItemHandler itemHandler = destinationResult.getKey();
-                    Object destination = destinationResult.getValue();
-                    ItemStack dispensedStack = stack.copy().split(1);
-                    ItemStack remainder = putStackInInventoryAllSlots(dropper, destination, itemHandler, dispensedStack);
-
-                    if (remainder.isEmpty()) {
-                        remainder = stack.copy();
-                        remainder.shrink(1);
-                    } else {
-                        remainder = stack.copy();
-                    }
-
-                    dropper.setItem(slot, remainder);
+                    dropInto(dropper, destinationResult.getValue(), destinationResult.getKey(), slot, stack);
                     return false;
                 })
                 .orElse(true);
     }
 
+    private static void dropInto(DispenserBlockEntity dropper, @Nullable Object destination, IItemHandler itemHandler, int slot, ItemStack stack) {
+        ItemStack dispensedStack = stack.copy().split(1);
+        ItemStack remainder = putStackInInventoryAllSlots(dropper, destination, itemHandler, dispensedStack);
+
+        if (remainder.isEmpty()) {
+            remainder = stack.copy();
+            remainder.shrink(1);
+        } else {
+            remainder = stack.copy();
+        }
+
+        dropper.setItem(slot, remainder);
+    }
+
+    /**
+     * {@return true if the hopper should not try to insert items this tick}
+     *
+     * <p>This is the case when the hopper found its target full, and the contents of the target have not changed since.
+     * The vanilla container fallback is skipped as well in that case, since the target would be found full again.
+     */
+    public static boolean isInsertSleeping(HopperBlockEntity hopper) {
+        if (!(hopper.getLevel() instanceof ServerLevel serverLevel)) {
+            return false;
+        }
+        Direction hopperFacing = hopper.getBlockState().getValue(HopperBlock.FACING);
+        return getTransferCache(hopper).insertTarget(serverLevel, hopper.getBlockPos().relative(hopperFacing), hopperFacing.getOpposite()).isSleeping();
+    }
+
     /**
      * Copied from TileEntityHopper#transferItemsOut and added capability support
      */
     public static boolean insertHook(HopperBlockEntity hopper) {
         Direction hopperFacing = hopper.getBlockState().getValue(HopperBlock.FACING);
+        if (hopper.getLevel() instanceof ServerLevel serverLevel) {
+            var target = getTransferCache(hopper).insertTarget(serverLevel, hopper.getBlockPos().relative(hopperFacing), hopperFacing.getOpposite());
+            if (target.isSleeping()) {
+                return false;
+            }
+            IItemHandler itemHandler = target.getCapability();
+            if (itemHandler != null) {
+                if (isFull(itemHandler)) {
+                    target.sleep(itemHandler);
+                    return false;
+                }
+                return insertFrom(hopper, target.getBlockEntity(), itemHandler);
+            }
+        }
+
         return getAttachedItemHandler(hopper.getLevel(), hopper.getBlockPos(), hopperFacing)
                 .map(destinationResult -> {
                     IItemHandler itemHandler = destinationResult.getKey();
-                    Object destination = destinationResult.getValue();
                     if (isFull(itemHandler)) {
-                        return false;
-                    } else {
-                        for (int i = 0; i < hopper.getContainerSize(); ++i) {
-                            if (!hopper.getItem(i).isEmpty()) {
-                                ItemStack originalSlotContents = hopper.getItem(i).copy();
-                                ItemStack insertStack = hopper.removeItem(i, 1);
-                                ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
-
-                                if (remainder.isEmpty()) {
-                                    return true;
-                                }
-
-                                hopper.setItem(i, originalSlotContents);
-                            }
-                        }
-
                         return false;
                     }
+                    return insertFrom(hopper, destinationResult.getValue(), itemHandler);
                 })
                 .orElse(false);
     }
 
-    private static ItemStack putStackInInventoryAllSlots(BlockEntity source, Object destination, IItemHandler destInventory, ItemStack stack) {
+    private static boolean insertFrom(HopperBlockEntity hopper, @Nullable Object destination, IItemHandler itemHandler) {
+        for (int i = 0; i < hopper.getContainerSize(); ++i) {
+            if (!hopper.getItem(i).isEmpty()) {
+                ItemStack originalSlotContents = hopper.getItem(i).copy();
+                ItemStack insertStack = hopper.removeItem(i, 1);
+                ItemStack remainder = putStackInInventoryAllSlots(hopper, destination, itemHandler, insertStack);
+
+                if (remainder.isEmpty()) {
+                    return true;
+                }
+
+                hopper.setItem(i, originalSlotContents);
+            }
+        }
+
+        return false;
+    }
+
+    private static ItemTransferCache getTransferCache(BlockEntity blockEntity) {
+        return blockEntity.getData(NeoForgeMod.ITEM_TRANSFER_CACHE);
+    }
+
+    /**
+     * Called when the contents of the block entity at {@code changedPos} changed, for each loaded neighbor of that block entity.
+     * Wakes up the neighboring hoppers that were waiting for the block entity to change.
+     */
+    public static void onNeighborContentsChanged(Level level, BlockPos neighborPos, BlockState neighborState, BlockPos changedPos) {
+        if (!level.isClientSide && neighborState.getBlock() instanceof HopperBlock && level.getBlockEntity(neighborPos) instanceof HopperBlockEntity hopper && hopper.hasData(NeoForgeMod.ITEM_TRANSFER_CACHE)) {
+            hopper.getData(NeoForgeMod.ITEM_TRANSFER_CACHE).onContentsChanged(level, changedPos);
+        }
+    }
+
+    /**
+     * Called when a block entity is removed, to close its transfer caches.
+     */
+    public static void onBlockEntityRemoved(BlockEntity blockEntity) {
+        if (blockEntity.hasData(NeoForgeMod.ITEM_TRANSFER_CACHE)) {
+            blockEntity.getData(NeoForgeMod.ITEM_TRANSFER_CACHE).close();
+        }
+    }
+
+    private static ItemStack putStackInInventoryAllSlots(BlockEntity source, @Nullable Object destination, IItemHandler destInventory, ItemStack stack) {
         for (int slot = 0; slot < destInventory.getSlots() && !stack.isEmpty(); slot++) {
             stack = insertStack(source, destination, destInventory, stack, slot);
         }
@@ -131,7 +214,7 @@ public class VanillaInventoryCodeHooks {
     /**
      * Copied from TileEntityHopper#insertStack and added capability support
      */
-    private static ItemStack insertStack(BlockEntity source, Object destination, IItemHandler destInventory, ItemStack stack, int slot) {
+    private static ItemStack insertStack(BlockEntity source, @Nullable Object destination, IItemHandler destInventory, ItemStack stack, int slot) {
         ItemStack itemstack = destInventory.getStackInSlot(slot);
 
         if (destInventory.insertItem(slot, stack, true).isEmpty()) {
@@ -6,13 +6,16 @@
 package net.neoforged.neoforge.items.wrapper;
 
 import net.minecraft.world.item.ItemStack;
+import net.neoforged.neoforge.items.IItemHandler;
 import net.neoforged.neoforge.items.IItemHandlerModifiable;
+import net.neoforged.neoforge.items.ItemHandlerHelper;
 
 // combines multiple IItemHandlerModifiable into one interface
 public class CombinedInvWrapper implements IItemHandlerModifiable {
     protected final IItemHandlerModifiable[] itemHandler; // the handlers
     protected final int[] baseIndex; // index-offsets of the different handlers
     protected final int slotCount; // number of total slots
+    protected final int[] handlerIndexForSlot; // index of the handler of each slot
 
     public CombinedInvWrapper(IItemHandlerModifiable... itemHandler) {
         this.itemHandler = itemHandler;
@@ -23,19 +26,21 @@ public class CombinedInvWrapper implements IItemHandlerModifiable {
             baseIndex[i] = index;
         }
         this.slotCount = index;
+
+        this.handlerIndexForSlot = new int[index];
+        for (int i = 0, slot = 0; i < itemHandler.length; i++) {
+            for (; slot < baseIndex[i]; slot++) {
+                handlerIndexForSlot[slot] = i;
+            }
+        }
     }
 
     // returns the handler index for the slot
     protected int getIndexForSlot(int slot) {
-        if (slot < 0)
+        if (slot < 0 || slot >= slotCount)
             return -1;
 
-        for (int i = 0; i < baseIndex.length; i++) {
-            if (slot - baseIndex[i] < 0) {
-                return i;
-            }
-        }
-        return -1;
+        return handlerIndexForSlot[slot];
     }
 
     protected IItemHandlerModifiable getHandlerFromIndex(int index) {
@@ -52,6 +57,76 @@ public class CombinedInvWrapper implements IItemHandlerModifiable {
         return slot - baseIndex[index - 1];
     }
 
+    // returns the number of slots of the handler at the index, as of when this wrapper was created
+    protected int getSlotCountOfIndex(int index) {
+        return index == 0 ? baseIndex[0] : baseIndex[index] - baseIndex[index - 1];
+    }
+
+    /**
+     * Inserts a stack into the slots of each handler in order, either into the slots that already hold a stack it can stack with, or into the empty slots.
+     * The handlers are iterated directly, instead of routing every slot through this wrapper.
+     * <p>
+     * Nested wrappers are only iterated directly if they are exactly a {@code CombinedInvWrapper}, so that the overrides of subclasses are respected.
+     * For the same reason, {@link ItemHandlerHelper} only calls this method on exact {@code CombinedInvWrapper} instances.
+     *
+     * @param emptySlots {@code true} to insert into empty slots, {@code false} to insert into slots that hold a stack of the same item and components
+     * @return the remaining stack that was not inserted
+     * @see ItemHandlerHelper#insertItemStacked(IItemHandler, ItemStack, boolean)
+     */
+    public ItemStack insertIntoSlots(ItemStack stack, boolean emptySlots, boolean simulate) {
+        for (int index = 0; index < itemHandler.length && !stack.isEmpty(); index++) {
+            IItemHandlerModifiable handler = itemHandler[index];
+            if (handler.getClass() == CombinedInvWrapper.class) {
+                stack = ((CombinedInvWrapper) handler).insertIntoSlots(stack, emptySlots, simulate);
+                continue;
+            }
+
+            int slots = getSlotCountOfIndex(index);
+            for (int slot = 0; slot < slots; slot++) {
+                ItemStack existing = handler.getStackInSlot(slot);
+                if (emptySlots ? existing.isEmpty() : ItemStack.isSameItemSameComponents(existing, stack)) {
+                    stack = handler.insertItem(slot, stack, simulate);
+                    if (stack.isEmpty()) {
+                        return ItemStack.EMPTY;
+                    }
+                }
+            }
+        }
+        return stack;
+    }
+
+    /**
+     * Extracts up to {@code amount} items from the first slot that any can be extracted from.
+     * The handlers are iterated directly, instead of routing every slot through this wrapper.
+     * <p>
+     * Nested wrappers are only iterated directly if they are exactly a {@code CombinedInvWrapper}, so that the overrides of subclasses are respected.
+     * For the same reason, {@link ItemHandlerHelper} only calls this method on exact {@code CombinedInvWrapper} instances.
+     *
+     * @return the extracted stack, or {@link ItemStack#EMPTY} if nothing could be extracted
+     * @see ItemHandlerHelper#extractAny(IItemHandler, int, boolean)
+     */
+    public ItemStack extractAny(int amount, boolean simulate) {
+        for (int index = 0; index < itemHandler.length; index++) {
+            IItemHandlerModifiable handler = itemHandler[index];
+            if (handler.getClass() == CombinedInvWrapper.class) {
+                ItemStack extracted = ((CombinedInvWrapper) handler).extractAny(amount, simulate);
+                if (!extracted.isEmpty()) {
+                    return extracted;
+                }
+                continue;
+            }
+
+            int slots = getSlotCountOfIndex(index);
+            for (int slot = 0; slot < slots; slot++) {
+                ItemStack extracted = handler.extractItem(slot, amount, simulate);
+                if (!extracted.isEmpty()) {
+                    return extracted;
+                }
+            }
+        }
+        return ItemStack.EMPTY;
+    }
+
     @Override
     public void setStackInSlot(int slot, ItemStack stack) {
         int index = getIndexForSlot(slot);
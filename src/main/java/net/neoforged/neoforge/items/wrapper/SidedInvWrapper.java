@@ -211,4 +211,8 @@ public class SidedInvWrapper implements IItemHandlerModifiable {
         int slot1 = getSlot(inv, slot, side);
         return slot1 == -1 ? false : inv.canPlaceItem(slot1, stack);
     }
+
+    public WorldlyContainer getInv() {
+        return inv;
+    }
 }
@@ -33,7 +33,7 @@ import org.jetbrains.annotations.ApiStatus;
 public class NetworkInitialization {
     @SubscribeEvent
     private static void register(final RegisterPayloadHandlersEvent event) {
-        final PayloadRegistrar registrar = event.registrar("1") // Update this version if the payload semantics change.
+        final PayloadRegistrar registrar = event.registrar("3") // Update this version if the payload semantics change.
                 .optional();
         registrar
                 .configurationToClient(
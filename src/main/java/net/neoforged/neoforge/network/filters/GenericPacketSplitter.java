@@ -6,24 +6,28 @@
 package net.neoforged.neoforge.network.filters;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToMessageEncoder;
-import java.util.ArrayList;
 import java.util.List;
 import net.minecraft.network.CompressionDecoder;
 import net.minecraft.network.Connection;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.HandlerNames;
 import net.minecraft.network.PacketEncoder;
+import net.minecraft.network.SkipPacketException;
+import net.minecraft.network.VarInt;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.Packet;
 import net.minecraft.network.protocol.PacketFlow;
 import net.minecraft.network.protocol.common.ClientboundCustomPayloadPacket;
 import net.minecraft.network.protocol.common.ServerboundCustomPayloadPacket;
+import net.minecraft.util.profiling.jfr.JvmProfiler;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.common.NeoForgeConfig;
 import net.neoforged.neoforge.internal.versions.neoforge.NeoForgeVersion;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
@@ -32,6 +36,7 @@ import net.neoforged.neoforge.network.registration.NetworkRegistry;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * A generic packet splitter that can be used to split packets that are too large to be sent in one go.
@@ -55,6 +60,9 @@ public class GenericPacketSplitter extends MessageToMessageEncoder<Packet<?>> im
     private static final byte STATE_FIRST = 1;
     private static final byte STATE_LAST = 2;
 
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+    private static final int MAX_VARINT_SIZE = 5;
+
     public static final String CHANNEL_HANDLER_NAME = "neoforge:splitter";
 
     @SubscribeEvent
@@ -93,72 +101,130 @@ public class GenericPacketSplitter extends MessageToMessageEncoder<Packet<?>> im
             return;
         }
 
+        if (packet.isTerminal()) {
+            // Terminal packets are small, and the encoder has to see them to switch protocols
+            out.add(packet);
+            return;
+        }
+
         boolean hasCompressor = ctx.pipeline().get(HandlerNames.COMPRESS) != null;
         // If there IS a compressor, use the NON-compressed limit since the compressor will compress after us!
         var sizeLimits = hasCompressor ? uncompressedSizeLimits : compressedSizeLimits;
 
-        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        @SuppressWarnings({ "unchecked", "rawtypes" }) // Eclipse requires the extra rawtype cast first.
+        var codec = (StreamCodec<ByteBuf, Packet<?>>) (StreamCodec) encoder.getProtocolInfo().codec();
+
+        // The packet is only encoded once: the encoded bytes are forwarded as-is,
+        // and the encoder further down the pipeline lets them pass through.
+        ByteBuf buf = ctx.alloc().buffer();
         try {
-            @SuppressWarnings({ "unchecked", "rawtypes" }) // Eclipse requires the extra rawtype cast first.
-            var codec = (StreamCodec<ByteBuf, Packet<?>>) (StreamCodec) encoder.getProtocolInfo().codec();
-            codec.encode(buf, packet);
-            if (buf.readableBytes() <= sizeLimits.packet()) {
-                out.add(packet);
-                return;
+            try {
+                codec.encode(buf, packet);
+            } catch (Throwable throwable) {
+                LOGGER.error("Error sending packet {}", packet.type(), throwable);
+                if (packet.isSkippable()) {
+                    throw new SkipPacketException(throwable);
+                }
+                throw throwable;
             }
 
-            int parts = (int) Math.ceil(((double) buf.readableBytes()) / sizeLimits.part());
-            if (parts == 1) {
-                out.add(packet);
+            int size = buf.readableBytes();
+            JvmProfiler.INSTANCE.onPacketSent(encoder.getProtocolInfo().id(), packet.type(), ctx.channel().remoteAddress(), size);
+
+            int parts = (int) Math.ceil(((double) size) / sizeLimits.part());
+            if (size <= sizeLimits.packet() || parts == 1) {
+                out.add(buf.retain());
                 return;
             }
 
-            final byte[] packetData = buf.array();
-            for (int part = 0; part < parts; part++) {
-                final int partSize = Math.min(sizeLimits.part(), packetData.length - (part * sizeLimits.part()));
-                final byte[] payloadSlice = new byte[partSize + 1];
-
-                byte prefix = part == 0 ? STATE_FIRST : part == parts - 1 ? STATE_LAST : 0;
-                payloadSlice[0] = prefix;
-                System.arraycopy(packetData, part * sizeLimits.part(), payloadSlice, 1, partSize);
-
-                out.add(createPacket(encoder.getProtocolInfo().flow(), payloadSlice));
+            ByteBuf header = encodePartHeader(ctx, codec, encoder.getProtocolInfo().flow());
+            try {
+                for (int part = 0; part < parts; part++) {
+                    final int offset = buf.readerIndex() + part * sizeLimits.part();
+                    final int partSize = Math.min(sizeLimits.part(), buf.writerIndex() - offset);
+
+                    // The byte array of the split payload: its length, the state, then the slice of the packet
+                    ByteBuf partHeader = ctx.alloc().buffer(header.readableBytes() + MAX_VARINT_SIZE + 1);
+                    partHeader.writeBytes(header, header.readerIndex(), header.readableBytes());
+                    VarInt.write(partHeader, partSize + 1);
+                    partHeader.writeByte(part == 0 ? STATE_FIRST : part == parts - 1 ? STATE_LAST : 0);
+
+                    CompositeByteBuf partBuf = ctx.alloc().compositeBuffer(2);
+                    partBuf.addComponents(true, partHeader, buf.retainedSlice(offset, partSize));
+                    out.add(partBuf);
+                }
+            } finally {
+                header.release();
             }
         } finally {
             buf.release();
         }
     }
 
-    private final List<byte[]> receivedBuffers = new ArrayList<>();
+    /**
+     * Encodes what precedes the packet data in a split packet: the packet id and the payload id.
+     */
+    private static ByteBuf encodePartHeader(ChannelHandlerContext ctx, StreamCodec<ByteBuf, Packet<?>> codec, PacketFlow flow) {
+        ByteBuf header = ctx.alloc().buffer();
+        codec.encode(header, createPacket(flow, EMPTY_PAYLOAD));
+        // Strip the length of the empty byte array, which is encoded as a single byte
+        header.writerIndex(header.writerIndex() - 1);
+        return header;
+    }
+
+    /**
+     * The parts of the split packet that is being received, or {@code null} if none is.
+     * The parts are added as views of the received payloads, without copying them.
+     */
+    @Nullable
+    private CompositeByteBuf receivedBuffer;
 
     private void receivedPacket(SplitPacketPayload payload, IPayloadContext context) {
-        byte state = payload.payload()[0];
+        byte[] data = payload.payload();
+        byte state = data[0];
         if (state == STATE_FIRST) {
-            if (!receivedBuffers.isEmpty()) {
+            if (receivedBuffer != null) {
                 LOGGER.warn("neoforge:split received out of order - inbound buffer not empty when receiving first");
-                receivedBuffers.clear();
+                releaseReceivedBuffer();
             }
         }
 
-        int contentSize = payload.payload().length - 1;
-        byte[] buffer = new byte[contentSize];
-        System.arraycopy(payload.payload(), 1, buffer, 0, contentSize); // We cut of the initial byte here that indicates the state
-        receivedBuffers.add(buffer);
+        if (receivedBuffer == null) {
+            // Never consolidate the components, as that would copy them
+            receivedBuffer = Unpooled.compositeBuffer(Integer.MAX_VALUE);
+        }
+
+        int contentSize = data.length - 1;
+        int budget = NeoForgeConfig.COMMON.maxSplitPacketSize.get();
+        if ((long) receivedBuffer.readableBytes() + contentSize > budget) {
+            LOGGER.error("Received split packet larger than the reassembly budget of {} bytes", budget);
+            releaseReceivedBuffer();
+            context.disconnect(Component.translatable("neoforge.network.packet_splitter.too_large", budget));
+            return;
+        }
+
+        // We cut of the initial byte here that indicates the state
+        receivedBuffer.addComponent(true, Unpooled.wrappedBuffer(data, 1, contentSize));
 
         if (state == STATE_LAST) {
-            final byte[][] buffers = receivedBuffers.toArray(new byte[0][]);
-            FriendlyByteBuf full = new FriendlyByteBuf(Unpooled.wrappedBuffer(buffers));
+            FriendlyByteBuf full = new FriendlyByteBuf(receivedBuffer);
 
             try {
                 Packet<?> packet = context.connection().getInboundProtocol().codec().decode(full);
                 context.enqueueWork(() -> context.handle(packet));
             } finally {
-                receivedBuffers.clear();
-                full.release();
+                releaseReceivedBuffer();
             }
         }
     }
 
+    private void releaseReceivedBuffer() {
+        if (receivedBuffer != null) {
+            receivedBuffer.release();
+            receivedBuffer = null;
+        }
+    }
+
     private static Packet<?> createPacket(PacketFlow flow, byte[] payload) {
         return switch (flow) {
             case SERVERBOUND -> new ServerboundCustomPayloadPacket(new SplitPacketPayload(payload));
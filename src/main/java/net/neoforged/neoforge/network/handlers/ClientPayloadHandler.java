@@ -128,7 +128,7 @@ public final class ClientPayloadHandler {
 
             AuxiliaryLightManager lightManager = mc.level.getAuxLightManager(msg.pos());
             if (lightManager instanceof LevelChunkAuxiliaryLightManager manager) {
-                manager.handleLightDataSync(msg.entries());
+                manager.handleLightDataSync(msg);
             }
         } catch (Throwable t) {
             context.disconnect(Component.translatable("neoforge.network.aux_light_data.failed", msg.pos().toString(), t.getMessage()));
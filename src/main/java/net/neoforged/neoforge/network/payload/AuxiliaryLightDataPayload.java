@@ -5,31 +5,53 @@
 
 package net.neoforged.neoforge.network.payload;
 
-import java.util.HashMap;
-import java.util.Map;
-import net.minecraft.core.BlockPos;
+import io.netty.buffer.ByteBuf;
+import java.util.List;
+import java.util.Optional;
 import net.minecraft.network.RegistryFriendlyByteBuf;
 import net.minecraft.network.codec.ByteBufCodecs;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.world.level.ChunkPos;
+import net.neoforged.neoforge.common.world.LevelChunkAuxiliaryLightManager;
 import net.neoforged.neoforge.internal.versions.neoforge.NeoForgeVersion;
 import net.neoforged.neoforge.network.codec.NeoForgeStreamCodecs;
 import org.jetbrains.annotations.ApiStatus;
 
+/**
+ * Syncs the auxiliary light of chunk sections.
+ *
+ * @param fullSync whether the payload contains all the non-empty sections of the chunk, or only the sections that changed
+ * @param sections the synced sections; sections without data are empty
+ */
 @ApiStatus.Internal
-public record AuxiliaryLightDataPayload(ChunkPos pos, Map<BlockPos, Byte> entries) implements CustomPacketPayload {
+public record AuxiliaryLightDataPayload(ChunkPos pos, boolean fullSync, List<Section> sections) implements CustomPacketPayload {
     public static final Type<AuxiliaryLightDataPayload> TYPE = new Type<>(new ResourceLocation(NeoForgeVersion.MOD_ID, "auxiliary_light_data"));
     public static final StreamCodec<RegistryFriendlyByteBuf, AuxiliaryLightDataPayload> STREAM_CODEC = StreamCodec.composite(
             NeoForgeStreamCodecs.CHUNK_POS,
             AuxiliaryLightDataPayload::pos,
-            ByteBufCodecs.map(HashMap::new, BlockPos.STREAM_CODEC, ByteBufCodecs.BYTE),
-            AuxiliaryLightDataPayload::entries,
+            ByteBufCodecs.BOOL,
+            AuxiliaryLightDataPayload::fullSync,
+            Section.STREAM_CODEC.apply(ByteBufCodecs.list()),
+            AuxiliaryLightDataPayload::sections,
             AuxiliaryLightDataPayload::new);
 
     @Override
     public Type<AuxiliaryLightDataPayload> type() {
         return TYPE;
     }
+
+    /**
+     * @param index the index of the section in the chunk
+     * @param data  the nibble array of the section, or empty if the section has no auxiliary light
+     */
+    public record Section(int index, Optional<byte[]> data) {
+        public static final StreamCodec<ByteBuf, Section> STREAM_CODEC = StreamCodec.composite(
+                ByteBufCodecs.VAR_INT,
+                Section::index,
+                ByteBufCodecs.optional(ByteBufCodecs.byteArray(LevelChunkAuxiliaryLightManager.SECTION_DATA_SIZE)),
+                Section::data,
+                Section::new);
+    }
 }
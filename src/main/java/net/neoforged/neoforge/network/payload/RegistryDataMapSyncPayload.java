@@ -17,10 +17,18 @@ import net.neoforged.neoforge.registries.RegistryManager;
 import net.neoforged.neoforge.registries.datamaps.DataMapType;
 import org.jetbrains.annotations.ApiStatus;
 
+/**
+ * Syncs the data maps of a registry to the client.
+ *
+ * @param registryKey the key of the registry
+ * @param dataMaps    the synced data maps
+ * @param fullSync    whether the payload contains all the data maps known to the client, in which case any other data map is cleared,
+ *                    or only the ones that changed during a reload
+ */
 @ApiStatus.Internal
 @SuppressWarnings({ "unchecked", "rawtypes" })
 public record RegistryDataMapSyncPayload<T>(ResourceKey<? extends Registry<T>> registryKey,
-        Map<ResourceLocation, Map<ResourceKey<T>, ?>> dataMaps) implements CustomPacketPayload {
+        Map<ResourceLocation, Map<ResourceKey<T>, ?>> dataMaps, boolean fullSync) implements CustomPacketPayload {
     public static final CustomPacketPayload.Type<RegistryDataMapSyncPayload<?>> TYPE = new Type<>(new ResourceLocation("neoforge:registry_data_map_sync"));
     public static final StreamCodec<FriendlyByteBuf, RegistryDataMapSyncPayload<?>> STREAM_CODEC = StreamCodec.ofMember(
             RegistryDataMapSyncPayload::write, RegistryDataMapSyncPayload::decode);
@@ -32,7 +40,7 @@ public record RegistryDataMapSyncPayload<T>(ResourceKey<? extends Registry<T>> r
             final DataMapType<T, ?> dataMap = RegistryManager.getDataMap(registryKey, key);
             return b1.readMap(bf -> bf.readResourceKey(registryKey), bf -> bf.readJsonWithCodec(dataMap.networkCodec()));
         });
-        return new RegistryDataMapSyncPayload<>(registryKey, attach);
+        return new RegistryDataMapSyncPayload<>(registryKey, attach, buf.readBoolean());
     }
 
     public void write(FriendlyByteBuf buf) {
@@ -41,6 +49,7 @@ public record RegistryDataMapSyncPayload<T>(ResourceKey<? extends Registry<T>> r
             final DataMapType<T, ?> dataMap = RegistryManager.getDataMap(registryKey, key);
             b1.writeMap(attach, FriendlyByteBuf::writeResourceKey, (bf, value) -> bf.writeJsonWithCodec((Codec) dataMap.networkCodec(), value));
         });
+        buf.writeBoolean(fullSync);
     }
 
     @Override
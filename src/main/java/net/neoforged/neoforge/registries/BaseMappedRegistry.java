@@ -5,11 +5,14 @@
 
 package net.neoforged.neoforge.registries;
 
+import com.google.common.hash.HashCode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
@@ -28,6 +31,15 @@ public abstract class BaseMappedRegistry<T> implements Registry<T> {
     protected final List<ClearCallback<T>> clearCallbacks = new ArrayList<>();
     final Map<ResourceLocation, ResourceLocation> aliases = new HashMap<>();
     final Map<DataMapType<T, ?>, Map<ResourceKey<T>, ?>> dataMaps = new IdentityHashMap<>();
+    /**
+     * Hashes of the inputs the {@link #dataMaps} were built from on the server, used to skip rebuilding unchanged data maps on reload.
+     */
+    final Map<DataMapType<T, ?>, HashCode> dataMapFingerprints = new IdentityHashMap<>();
+    /**
+     * The values of {@link #dataMaps}, indexed by {@linkplain DataMapType#index() data map index} and then by registry ID.
+     * Built lazily, and discarded whenever the data maps or the registry IDs change.
+     */
+    private volatile Object @Nullable [][] denseDataMaps;
 
     private int maxId = Integer.MAX_VALUE - 1;
     private boolean sync;
@@ -109,7 +121,19 @@ public abstract class BaseMappedRegistry<T> implements Registry<T> {
         this.aliases.clear();
         if (full) {
             this.dataMaps.clear();
+            this.dataMapFingerprints.clear();
         }
+        this.denseDataMaps = null;
+    }
+
+    /**
+     * Replaces all the data maps of this registry.
+     */
+    void setDataMaps(Map<DataMapType<T, ?>, Map<ResourceKey<T>, ?>> dataMaps) {
+        this.dataMaps.clear();
+        this.dataMaps.putAll(dataMaps);
+        this.dataMapFingerprints.clear();
+        this.denseDataMaps = null;
     }
 
     /**
@@ -126,6 +150,63 @@ public abstract class BaseMappedRegistry<T> implements Registry<T> {
         return innerMap == null ? null : (A) innerMap.get(key);
     }
 
+    /**
+     * {@return the data of the given type attached to the holder, or {@code null} if there is none}
+     *
+     * <p>Unlike {@link #getData(DataMapType, ResourceKey)}, this does not need any map lookup,
+     * as the data maps are also stored in arrays indexed by the registry ID of the holder.
+     */
+    public <A> @Nullable A getData(DataMapType<T, A> type, Holder.Reference<T> holder) {
+        int index = type.index();
+        int id = holder.registryId();
+        var dense = this.denseDataMaps;
+        if (dense == null) {
+            dense = this.denseDataMaps = buildDenseDataMaps();
+        }
+        if (index < 0 || index >= dense.length) {
+            return null;
+        }
+        var values = dense[index];
+        if (values == null) {
+            return null;
+        }
+        if (id < 0 || id >= values.length) {
+            // The holder was registered after the arrays were built
+            return getData(type, holder.key());
+        }
+        return (A) values[id];
+    }
+
+    private Object[][] buildDenseDataMaps() {
+        int types = 0;
+        for (var type : this.dataMaps.keySet()) {
+            if (type != null) {
+                types = Math.max(types, type.index() + 1);
+            }
+        }
+        int size = this.size();
+        var dense = new Object[types][];
+        this.dataMaps.forEach((type, map) -> {
+            if (type == null || type.index() < 0) {
+                return;
+            }
+            // IDs are usually contiguous, but remapped registries may have holes
+            var values = new Object[size];
+            for (var entry : map.entrySet()) {
+                // Use the same ID as the lookup in getData, which is the one bound to the holder
+                int id = this.getHolder(entry.getKey()).map(Holder.Reference::registryId).orElse(-1);
+                if (id >= values.length) {
+                    values = Arrays.copyOf(values, id + 1);
+                }
+                if (id >= 0) {
+                    values[id] = entry.getValue();
+                }
+            }
+            dense[type.index()] = values;
+        });
+        return dense;
+    }
+
     @Override
     public <A> Map<ResourceKey<T>, A> getDataMap(DataMapType<T, A> type) {
         return (Map<ResourceKey<T>, A>) dataMaps.getOrDefault(type, Map.of());
@@ -5,21 +5,32 @@
 
 package net.neoforged.neoforge.registries;
 
+import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.mojang.datafixers.util.Either;
 import com.mojang.logging.LogUtils;
 import com.mojang.serialization.JsonOps;
-import java.io.Reader;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import net.minecraft.Util;
 import net.minecraft.core.Holder;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -40,6 +51,8 @@ import net.neoforged.neoforge.registries.datamaps.DataMapFile;
 import net.neoforged.neoforge.registries.datamaps.DataMapType;
 import net.neoforged.neoforge.registries.datamaps.DataMapValueMerger;
 import net.neoforged.neoforge.registries.datamaps.DataMapsUpdatedEvent;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 
 @SuppressWarnings({ "rawtypes", "unchecked" })
@@ -49,6 +62,8 @@ public class DataMapLoader implements PreparableReloadListener {
     private Map<ResourceKey<? extends Registry<?>>, LoadResult<?>> results;
     private final ICondition.IContext conditionContext;
     private final RegistryAccess registryAccess;
+    private Executor backgroundExecutor = Util.backgroundExecutor();
+    private final Map<ResourceKey<? extends Registry<?>>, Set<ResourceLocation>> changedDataMaps = new HashMap<>();
 
     public DataMapLoader(ICondition.IContext conditionContext, RegistryAccess registryAccess) {
         this.conditionContext = conditionContext;
@@ -57,23 +72,105 @@ public class DataMapLoader implements PreparableReloadListener {
 
     @Override
     public CompletableFuture<Void> reload(PreparationBarrier preparationBarrier, ResourceManager resourceManager, ProfilerFiller preparationsProfiler, ProfilerFiller reloadProfiler, Executor backgroundExecutor, Executor gameExecutor) {
+        this.backgroundExecutor = backgroundExecutor;
         return this.load(resourceManager, backgroundExecutor, preparationsProfiler)
                 .thenCompose(preparationBarrier::wait)
                 .thenAcceptAsync(values -> this.results = values, gameExecutor);
     }
 
     public void apply() {
-        results.forEach((key, result) -> this.apply((BaseMappedRegistry) registryAccess.registryOrThrow(key), result));
+        changedDataMaps.clear();
+        registryAccess.registries().forEach(entry -> {
+            final var registry = (BaseMappedRegistry) entry.value();
+            final var result = results.get(entry.key());
+            // Registries that lost all their data map files still need to be updated
+            if (result != null || !registry.dataMaps.isEmpty()) {
+                this.apply(registry, result == null ? new LoadResult<>(Map.of(), Map.of()) : result);
+            }
+        });
 
         // Clear the intermediary maps and objects
         results = null;
     }
 
+    /**
+     * {@return the IDs of the data maps that changed during the last reload, per registry}
+     */
+    @ApiStatus.Internal
+    public Map<ResourceKey<? extends Registry<?>>, Set<ResourceLocation>> getChangedDataMaps() {
+        return Collections.unmodifiableMap(changedDataMaps);
+    }
+
     private <T> void apply(BaseMappedRegistry<T> registry, LoadResult<T> result) {
-        registry.dataMaps.clear();
-        result.results().forEach((key, entries) -> registry.dataMaps.put(
-                key, this.buildDataMap(registry, key, (List) entries)));
-        NeoForge.EVENT_BUS.post(new DataMapsUpdatedEvent(registryAccess, registry, DataMapsUpdatedEvent.UpdateCause.SERVER_RELOAD));
+        final Map<DataMapType<T, ?>, Map<ResourceKey<T>, ?>> dataMaps = new ConcurrentHashMap<>();
+        final Map<DataMapType<T, ?>, HashCode> fingerprints = new IdentityHashMap<>();
+        final Set<DataMapType<T, ?>> changed = Sets.newIdentityHashSet();
+        // Each data map only depends on its own files and on the (immutable) registry and tags, so they are built in parallel.
+        // Advanced data maps run the mergers and removers of their mods, which are not required to be thread-safe,
+        // so they are built serially on the calling thread instead
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(result.results().size());
+        result.results().forEach((key, entries) -> {
+            final HashCode fingerprint = fingerprint(registry, result.fileHashes().get(key), (List) entries);
+            fingerprints.put(key, fingerprint);
+            final var oldMap = registry.dataMaps.get(key);
+            if (oldMap != null && fingerprint.equals(registry.dataMapFingerprints.get(key))) {
+                // Neither the files nor the tags they reference changed, keep the existing map
+                dataMaps.put(key, oldMap);
+                return;
+            }
+            changed.add(key);
+            final Runnable build = () -> {
+                final long start = System.nanoTime();
+                dataMaps.put(key, this.buildDataMap(registry, key, (List) entries));
+                LOGGER.debug("Built data map {} for registry {} in {} ms", key.id(), registry.key().location(), (System.nanoTime() - start) / 1_000_000.0);
+            };
+            if (key instanceof AdvancedDataMapType<?, ?, ?>) {
+                build.run();
+            } else {
+                futures.add(CompletableFuture.runAsync(build, backgroundExecutor));
+            }
+        });
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        registry.dataMaps.keySet().forEach(type -> {
+            if (!dataMaps.containsKey(type)) {
+                changed.add(type);
+            }
+        });
+
+        if (!changed.isEmpty()) {
+            registry.setDataMaps(dataMaps);
+            changedDataMaps.put(registry.key(), changed.stream().map(DataMapType::id).collect(Collectors.toSet()));
+        }
+        registry.dataMapFingerprints.clear();
+        registry.dataMapFingerprints.putAll(fingerprints);
+        NeoForge.EVENT_BUS.post(new DataMapsUpdatedEvent(registryAccess, registry, DataMapsUpdatedEvent.UpdateCause.SERVER_RELOAD, changed));
+    }
+
+    /**
+     * Computes a hash of everything a data map is built from: the contents of its files, which values were not removed by
+     * conditions, and the contents of the tags they reference.
+     */
+    private static <T> HashCode fingerprint(Registry<T> registry, @Nullable HashCode fileHash, List<DataMapFile<?, T>> entries) {
+        final Hasher hasher = Hashing.murmur3_128().newHasher();
+        if (fileHash != null) {
+            hasher.putBytes(fileHash.asBytes());
+        }
+        hasher.putInt(entries.size());
+        final Consumer<Either<TagKey<T>, ResourceKey<T>>> keyHasher = key -> key
+                .ifLeft(tag -> {
+                    hasher.putString(tag.location().toString(), StandardCharsets.UTF_8);
+                    registry.getTagOrEmpty(tag).forEach(holder -> hasher.putString(holder.unwrapKey().orElseThrow().location().toString(), StandardCharsets.UTF_8));
+                })
+                .ifRight(element -> hasher.putString(element.location().toString(), StandardCharsets.UTF_8));
+        for (DataMapFile<?, T> entry : entries) {
+            hasher.putBoolean(entry.replace());
+            entry.values().forEach((key, value) -> {
+                keyHasher.accept(key);
+                hasher.putBoolean(value.isPresent());
+            });
+            entry.removals().forEach(removal -> keyHasher.accept(removal.key()));
+        }
+        return hasher.hash();
     }
 
     private <T, R> Map<ResourceKey<R>, T> buildDataMap(Registry<R> registry, DataMapType<R, T> attachment, List<DataMapFile<T, R>> entries) {
@@ -125,13 +222,29 @@ public class DataMapLoader implements PreparableReloadListener {
     }
 
     private CompletableFuture<Map<ResourceKey<? extends Registry<?>>, LoadResult<?>>> load(ResourceManager manager, Executor executor, ProfilerFiller profiler) {
-        return CompletableFuture.supplyAsync(() -> load(manager, profiler, registryAccess, conditionContext), executor);
+        final RegistryOps<JsonElement> ops = new ConditionalOps<>(RegistryOps.create(JsonOps.INSTANCE, registryAccess), conditionContext);
+        return CompletableFuture.supplyAsync(() -> locate(manager, profiler, registryAccess), executor)
+                .thenCompose(files -> {
+                    // Decode every data map type in parallel. The files of a single type are still decoded in order.
+                    final List<CompletableFuture<DecodedFiles>> futures = new ArrayList<>(files.size());
+                    for (LocatedFiles located : files) {
+                        futures.add(CompletableFuture.supplyAsync(() -> {
+                            final long start = System.nanoTime();
+                            final Hasher hasher = Hashing.murmur3_128().newHasher();
+                            final var entries = readData(ops, located.type(), (ResourceKey) located.registryKey(), located.resources(), hasher);
+                            return new DecodedFiles(located, entries, hasher.hash(), System.nanoTime() - start);
+                        }, executor));
+                    }
+                    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                            .thenApply(v -> merge(futures, profiler));
+                });
     }
 
-    private static Map<ResourceKey<? extends Registry<?>>, LoadResult<?>> load(ResourceManager manager, ProfilerFiller profiler, RegistryAccess access, ICondition.IContext context) {
-        final RegistryOps<JsonElement> ops = new ConditionalOps<>(RegistryOps.create(JsonOps.INSTANCE, access), context);
-
-        final Map<ResourceKey<? extends Registry<?>>, LoadResult<?>> values = new HashMap<>();
+    /**
+     * Finds the data map files of every registry. Runs on a single thread, in the order of the registries and of the files.
+     */
+    private static List<LocatedFiles> locate(ResourceManager manager, ProfilerFiller profiler, RegistryAccess access) {
+        final List<LocatedFiles> files = new ArrayList<>();
         access.registries().forEach(registryEntry -> {
             final var registryKey = registryEntry.key();
             profiler.push("registry_data_maps/" + registryKey.location() + "/locating");
@@ -144,13 +257,30 @@ public class DataMapLoader implements PreparableReloadListener {
                     LOGGER.warn("Found data map file for non-existent data map type '{}' on registry '{}'.", attachmentId, registryKey.location());
                     continue;
                 }
-                profiler.popPush("registry_data_maps/" + registryKey.location() + "/" + attachmentId + "/loading");
-                values.computeIfAbsent(registryKey, k -> new LoadResult<>(new HashMap<>())).results.put(attachment, readData(
-                        ops, attachment, (ResourceKey) registryKey, entry.getValue()));
+                files.add(new LocatedFiles(registryKey, attachment, entry.getValue()));
             }
             profiler.pop();
         });
+        return files;
+    }
 
+    /**
+     * Collects the decoded files in the order in which they were located, so that the result does not depend on the scheduling of the decoding tasks.
+     */
+    private static Map<ResourceKey<? extends Registry<?>>, LoadResult<?>> merge(List<CompletableFuture<DecodedFiles>> futures, ProfilerFiller profiler) {
+        final Map<ResourceKey<? extends Registry<?>>, LoadResult<?>> values = new HashMap<>();
+        for (CompletableFuture<DecodedFiles> future : futures) {
+            final DecodedFiles decoded = future.join();
+            final LocatedFiles located = decoded.files();
+            // The decoding ran on other threads, so the time spent is reported as counters of the section of each type
+            profiler.push("registry_data_maps/" + located.registryKey().location() + "/" + located.type().id() + "/loading");
+            profiler.incrementCounter("files", located.resources().size());
+            profiler.incrementCounter("decode_micros", (int) Math.min(Integer.MAX_VALUE, decoded.nanos() / 1_000));
+            profiler.pop();
+            final LoadResult<?> result = values.computeIfAbsent(located.registryKey(), k -> new LoadResult<>(new HashMap<>(), new HashMap<>()));
+            result.results.put((DataMapType) located.type(), (List) decoded.entries());
+            result.fileHashes.put((DataMapType) located.type(), decoded.fileHash());
+        }
         return values;
     }
 
@@ -158,12 +288,16 @@ public class DataMapLoader implements PreparableReloadListener {
         return (registryId.getNamespace().equals(ResourceLocation.DEFAULT_NAMESPACE) ? "" : registryId.getNamespace() + "/") + registryId.getPath();
     }
 
-    private static <A, T> List<DataMapFile<A, T>> readData(RegistryOps<JsonElement> ops, DataMapType<T, A> attachmentType, ResourceKey<Registry<T>> registryKey, List<Resource> resources) {
+    private static <A, T> List<DataMapFile<A, T>> readData(RegistryOps<JsonElement> ops, DataMapType<T, A> attachmentType, ResourceKey<Registry<T>> registryKey, List<Resource> resources, Hasher hasher) {
         final var codec = DataMapFile.codec(registryKey, attachmentType);
         final List<DataMapFile<A, T>> entries = new LinkedList<>();
         for (final Resource resource : resources) {
-            try (Reader reader = resource.openAsReader()) {
-                JsonElement jsonelement = JsonParser.parseReader(reader);
+            try (InputStream stream = resource.open()) {
+                final byte[] contents = stream.readAllBytes();
+                hasher.putString(resource.sourcePackId(), StandardCharsets.UTF_8);
+                hasher.putInt(contents.length);
+                hasher.putBytes(contents);
+                JsonElement jsonelement = JsonParser.parseString(new String(contents, StandardCharsets.UTF_8));
                 entries.add(codec.decode(ops, jsonelement).getOrThrow().getFirst());
             } catch (Exception exception) {
                 LOGGER.error("Could not read data map of type {} for registry {}", attachmentType.id(), registryKey, exception);
@@ -172,5 +306,9 @@ public class DataMapLoader implements PreparableReloadListener {
         return entries;
     }
 
-    private record LoadResult<T>(Map<DataMapType<T, ?>, List<DataMapFile<?, T>>> results) {}
+    private record LoadResult<T>(Map<DataMapType<T, ?>, List<DataMapFile<?, T>>> results, Map<DataMapType<T, ?>, HashCode> fileHashes) {}
+
+    private record LocatedFiles(ResourceKey<? extends Registry<?>> registryKey, DataMapType<?, ?> type, List<Resource> resources) {}
+
+    private record DecodedFiles(LocatedFiles files, List<? extends DataMapFile<?, ?>> entries, HashCode fileHash, long nanos) {}
 }
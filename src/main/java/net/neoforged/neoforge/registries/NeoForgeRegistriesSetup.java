@@ -10,6 +10,9 @@ import net.minecraft.core.Registry;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.world.item.ItemDisplayContext;
 import net.neoforged.bus.api.IEventBus;
+import net.neoforged.neoforge.attachment.AttachmentInternals;
+import net.neoforged.neoforge.attachment.AttachmentType;
+import net.neoforged.neoforge.registries.callback.BakeCallback;
 import org.jetbrains.annotations.ApiStatus;
 
 @ApiStatus.Internal
@@ -85,5 +88,6 @@ public class NeoForgeRegistriesSetup {
         BuiltInRegistries.POINT_OF_INTEREST_TYPE.addCallback(NeoForgeRegistryCallbacks.PoiTypeCallbacks.INSTANCE);
         // We add this callback here to not cause a tricky classloading loop with ForgeRegistries#DISPLAY_CONTEXTS and ItemDisplayContext#CODEC
         NeoForgeRegistries.DISPLAY_CONTEXTS.addCallback(ItemDisplayContext.ADD_CALLBACK);
+        NeoForgeRegistries.ATTACHMENT_TYPES.addCallback((BakeCallback<AttachmentType<?>>) AttachmentInternals::assignAttachmentTypeIndices);
     }
 }
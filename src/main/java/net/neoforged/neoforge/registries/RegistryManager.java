@@ -46,6 +46,10 @@ public class RegistryManager {
     private static Map<ResourceLocation, RegistrySnapshot> vanillaSnapshot = null;
     private static Map<ResourceLocation, RegistrySnapshot> frozenSnapshot = null;
     private static Map<ResourceKey<Registry<?>>, Map<ResourceLocation, DataMapType<?, ?>>> dataMaps = Map.of();
+    /**
+     * Incremented every time registry ids are remapped by a snapshot, see {@link #getIdMappingVersion()}.
+     */
+    private static volatile int idMappingVersion;
 
     /**
      * Called by {@link RegistryBuilder} to make sure that modders don't forget to register their registries.
@@ -133,6 +137,8 @@ public class RegistryManager {
         List<ResourceLocation> missingRegistries = allowMissing ? new ArrayList<>() : null;
         Set<ResourceKey<?>> missingEntries = new HashSet<>();
 
+        // Invalidate before and after remapping, so that caches built while ids are being rebound are not kept
+        idMappingVersion++;
         snapshots.forEach((registryName, snapshot) -> {
             if (!BuiltInRegistries.REGISTRY.containsKey(registryName)) {
                 if (!allowMissing)
@@ -145,6 +151,7 @@ public class RegistryManager {
             MappedRegistry<?> registry = (MappedRegistry<?>) BuiltInRegistries.REGISTRY.get(registryName);
             applySnapshot(registry, snapshot, missingEntries);
         });
+        idMappingVersion++;
 
         if (missingRegistries != null && !missingRegistries.isEmpty() && LOGGER.isWarnEnabled(REGISTRIES)) {
             StringBuilder builder = new StringBuilder("NeoForge detected missing/unknown registries.\n\n")
@@ -211,6 +218,17 @@ public class RegistryManager {
         forgeRegistry.freeze();
     }
 
+    /**
+     * {@return a number that changes every time the ids of the registries are remapped}
+     *
+     * <p>Caches indexed by {@linkplain net.minecraft.core.Holder.Reference#registryId() registry id} must be rebuilt when this changes,
+     * for example when registries are synced from a server or reverted on disconnect.
+     */
+    @ApiStatus.Internal
+    public static int getIdMappingVersion() {
+        return idMappingVersion;
+    }
+
     /**
      * Takes a snapshot of the current registries registered to {@link BuiltInRegistries#REGISTRY}.
      *
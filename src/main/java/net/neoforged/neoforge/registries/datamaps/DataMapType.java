@@ -12,6 +12,7 @@ import net.minecraft.core.Registry;
 import net.minecraft.resources.ResourceKey;
 import net.minecraft.resources.ResourceLocation;
 import net.neoforged.neoforge.common.conditions.ConditionalOps;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -62,6 +63,10 @@ public sealed class DataMapType<R, T> permits AdvancedDataMapType {
     private final Codec<T> codec;
     private final @Nullable Codec<T> networkCodec;
     private final boolean mandatorySync;
+    /**
+     * The index of this type among the data map types of its registry, assigned on registration.
+     */
+    int index = -1;
 
     DataMapType(ResourceKey<Registry<R>> registryKey, ResourceLocation id, Codec<T> codec, @Nullable Codec<T> networkCodec, boolean mandatorySync) {
         Preconditions.checkArgument(networkCodec != null || !mandatorySync, "Mandatory sync cannot be enabled when the attachment isn't synchronized");
@@ -121,6 +126,16 @@ public sealed class DataMapType<R, T> permits AdvancedDataMapType {
         return mandatorySync;
     }
 
+    /**
+     * {@return the index of this data map among the data maps of its registry, or {@code -1} if it was not registered}
+     *
+     * <p>Indices are dense, starting at 0 for each registry, and are used to store the data maps in arrays.
+     */
+    @ApiStatus.Internal
+    public int index() {
+        return index;
+    }
+
     /**
      * A builder for {@link DataMapType data map types}.
      *
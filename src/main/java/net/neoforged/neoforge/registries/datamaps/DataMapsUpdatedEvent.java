@@ -5,6 +5,8 @@
 
 package net.neoforged.neoforge.registries.datamaps;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.function.Consumer;
 import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
@@ -27,12 +29,14 @@ public class DataMapsUpdatedEvent extends Event {
     private final RegistryAccess registryAccess;
     private final Registry<?> registry;
     private final UpdateCause cause;
+    private final Set<DataMapType<?, ?>> changedTypes;
 
     @ApiStatus.Internal
-    public DataMapsUpdatedEvent(RegistryAccess registryAccess, Registry<?> registry, UpdateCause cause) {
+    public DataMapsUpdatedEvent(RegistryAccess registryAccess, Registry<?> registry, UpdateCause cause, Set<? extends DataMapType<?, ?>> changedTypes) {
         this.registryAccess = registryAccess;
         this.registry = registry;
         this.cause = cause;
+        this.changedTypes = Collections.unmodifiableSet(changedTypes);
     }
 
     /**
@@ -70,6 +74,24 @@ public class DataMapsUpdatedEvent extends Event {
         }
     }
 
+    /**
+     * {@return the data map types whose values changed in this update}
+     *
+     * <p>On {@linkplain UpdateCause#SERVER_RELOAD reload}, data maps whose files and referenced tags did not change are not rebuilt,
+     * and keep the same values. This set may therefore be empty.
+     * On {@linkplain UpdateCause#CLIENT_SYNC sync}, this contains the data maps that were received from the server.
+     */
+    public Set<DataMapType<?, ?>> getChangedTypes() {
+        return changedTypes;
+    }
+
+    /**
+     * {@return whether the values of the given data map type changed in this update}
+     */
+    public boolean hasChanged(DataMapType<?, ?> type) {
+        return changedTypes.contains(type);
+    }
+
     /**
      * {@return the reason for the update}
      */
@@ -47,6 +47,7 @@ public class RegisterDataMapTypesEvent extends Event implements IModBusEvent {
         if (map.containsKey(type.id())) {
             throw new IllegalArgumentException("Tried to register data map type with ID " + type.id() + " to registry " + registry.location() + " twice");
         }
+        type.index = map.size();
         map.put(type.id(), type);
     }
 }
@@ -64,6 +64,11 @@ public class AndHolderSet<T> extends CompositeHolderSet<T> {
                 .collect(Collectors.toSet());
     }
 
+    @Override
+    HolderIdSet<T> createIdSet() {
+        return HolderIdSet.intersection(this.getComponents());
+    }
+
     @Override
     public String toString() {
         return "AndSet[" + this.getComponents() + "]";
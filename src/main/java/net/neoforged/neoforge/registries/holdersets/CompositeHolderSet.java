@@ -33,6 +33,11 @@ public abstract class CompositeHolderSet<T> implements ICustomHolderSet<T> {
     private Set<Holder<T>> set = null;
     @Nullable
     private List<Holder<T>> list = null;
+    /**
+     * Bitset of the holders, which is not {@linkplain HolderIdSet#isSupported() supported} if they cannot be represented as one.
+     */
+    @Nullable
+    private HolderIdSet<T> idSet = null;
 
     public CompositeHolderSet(List<HolderSet<T>> components) {
         this.components = components;
@@ -46,6 +51,14 @@ public abstract class CompositeHolderSet<T> implements ICustomHolderSet<T> {
      */
     protected abstract Set<Holder<T>> createSet();
 
+    /**
+     * {@return the bitset of the holders of this set, built from the bitsets of the components, or {@code null} if it cannot be represented as one}
+     */
+    @Nullable
+    HolderIdSet<T> createIdSet() {
+        return null;
+    }
+
     public List<HolderSet<T>> getComponents() {
         return this.components;
     }
@@ -61,6 +74,16 @@ public abstract class CompositeHolderSet<T> implements ICustomHolderSet<T> {
         }
     }
 
+    @Nullable
+    HolderIdSet<T> getIdSet() {
+        HolderIdSet<T> cached = this.idSet;
+        HolderIdSet<T> thisIdSet = HolderIdSet.getOrBuild(cached, this::createIdSet);
+        if (thisIdSet != cached) {
+            this.idSet = thisIdSet;
+        }
+        return thisIdSet.isSupported() ? thisIdSet : null;
+    }
+
     public List<Holder<T>> getList() {
         List<Holder<T>> thisList = this.list;
         if (thisList == null) {
@@ -80,6 +103,7 @@ public abstract class CompositeHolderSet<T> implements ICustomHolderSet<T> {
     private void invalidate() {
         this.set = null;
         this.list = null;
+        this.idSet = null;
         for (Runnable runnable : this.owners) {
             runnable.run();
         }
@@ -116,6 +140,13 @@ public abstract class CompositeHolderSet<T> implements ICustomHolderSet<T> {
 
     @Override
     public boolean contains(Holder<T> holder) {
+        HolderIdSet<T> idSet = this.getIdSet();
+        if (idSet != null) {
+            Boolean contained = idSet.contains(holder);
+            if (contained != null) {
+                return contained;
+            }
+        }
         return this.getSet().contains(holder);
     }
 
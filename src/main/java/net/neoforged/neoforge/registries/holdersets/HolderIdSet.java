@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.registries.holdersets;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+import net.minecraft.core.Holder;
+import net.minecraft.core.HolderOwner;
+import net.minecraft.core.HolderSet;
+import net.neoforged.neoforge.registries.RegistryManager;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable set of registry holders, stored as a bitset indexed by the {@linkplain Holder.Reference#registryId() registry id} of the holders.
+ * Used by {@link CompositeHolderSet} and {@link NotHolderSet} to answer {@link HolderSet#contains} with a single bit test,
+ * and to combine their components with word-wise operations.
+ *
+ * <p>Only holders registered in the same registry as the members of the set can be tested.
+ * Sets that contain other holders cannot be represented, and fall back to hashing.
+ *
+ * <p>Registry ids change when registries are remapped, so cached bitsets record the
+ * {@linkplain RegistryManager#getIdMappingVersion() id mapping version} they were built for, see {@link #getOrBuild}.
+ */
+final class HolderIdSet<T> {
+    private static final long[] NO_WORDS = new long[0];
+    /**
+     * Version of the sets that are only used while building another set.
+     */
+    private static final int UNVERSIONED = -1;
+
+    /**
+     * The owner of all the holders of this set, or {@code null} if the set is empty.
+     */
+    @Nullable
+    private final HolderOwner<T> owner;
+    /**
+     * The bits of the set, or {@code null} for the marker cached by holder sets that cannot be represented as a bitset.
+     */
+    @Nullable
+    private final long[] words;
+    private final int idMappingVersion;
+
+    private HolderIdSet(@Nullable HolderOwner<T> owner, @Nullable long[] words, int idMappingVersion) {
+        this.owner = owner;
+        this.words = words;
+        this.idMappingVersion = idMappingVersion;
+    }
+
+    private HolderIdSet(@Nullable HolderOwner<T> owner, long[] words) {
+        this(owner, words, UNVERSIONED);
+    }
+
+    /**
+     * {@return the cached bitset if it was built for the current registry ids, or a new bitset built by the given builder}
+     *
+     * <p>The returned set is never {@code null}, but is not {@linkplain #isSupported() supported} if the builder returned {@code null}.
+     */
+    static <T> HolderIdSet<T> getOrBuild(@Nullable HolderIdSet<T> cached, Supplier<@Nullable HolderIdSet<T>> builder) {
+        // Read the version first, so that a concurrent remap invalidates the built set
+        int idMappingVersion = RegistryManager.getIdMappingVersion();
+        if (cached != null && cached.idMappingVersion == idMappingVersion) {
+            return cached;
+        }
+        HolderIdSet<T> built = builder.get();
+        return built == null ? new HolderIdSet<>(null, null, idMappingVersion) : new HolderIdSet<>(built.owner, built.words, idMappingVersion);
+    }
+
+    boolean isSupported() {
+        return words != null;
+    }
+
+    /**
+     * {@return the bitset of the given holders, or {@code null} if they cannot be represented as one}
+     */
+    @Nullable
+    static <T> HolderIdSet<T> of(Iterable<Holder<T>> holders) {
+        HolderOwner<T> owner = null;
+        long[] words = NO_WORDS;
+        for (Holder<T> holder : holders) {
+            if (!(holder.getDelegate() instanceof Holder.Reference<T> reference) || reference.registryId() < 0) {
+                return null;
+            }
+            if (owner == null) {
+                owner = reference.owner();
+            } else if (owner != reference.owner()) {
+                return null;
+            }
+            int id = reference.registryId();
+            if (id >>> 6 >= words.length) {
+                words = Arrays.copyOf(words, (id >>> 6) + 1);
+            }
+            words[id >>> 6] |= 1L << id;
+        }
+        return new HolderIdSet<>(owner, words);
+    }
+
+    /**
+     * {@return the bitset of a component holder set, reusing the cached bitset of composite sets}
+     */
+    @Nullable
+    static <T> HolderIdSet<T> of(HolderSet<T> holderSet) {
+        if (holderSet instanceof CompositeHolderSet<T> composite) {
+            return composite.getIdSet();
+        } else if (holderSet instanceof NotHolderSet<T> not) {
+            return not.getIdSet();
+        }
+        return of((Iterable<Holder<T>>) holderSet);
+    }
+
+    /**
+     * {@return the union of the bitsets of the given holder sets, or {@code null} if one of them cannot be represented as a bitset}
+     */
+    @Nullable
+    static <T> HolderIdSet<T> union(List<HolderSet<T>> holderSets) {
+        HolderIdSet<T> result = new HolderIdSet<>(null, NO_WORDS);
+        for (HolderSet<T> holderSet : holderSets) {
+            HolderIdSet<T> other = of(holderSet);
+            HolderOwner<T> owner = other == null ? null : commonOwner(result, other);
+            if (owner == null && (other == null || !result.isEmpty() && !other.isEmpty())) {
+                return null;
+            }
+            long[] words = Arrays.copyOf(result.words, Math.max(result.words.length, other.words.length));
+            for (int i = 0; i < other.words.length; i++) {
+                words[i] |= other.words[i];
+            }
+            result = new HolderIdSet<>(owner, words);
+        }
+        return result;
+    }
+
+    /**
+     * {@return the intersection of the bitsets of the given holder sets, or {@code null} if one of them cannot be represented as a bitset}
+     */
+    @Nullable
+    static <T> HolderIdSet<T> intersection(List<HolderSet<T>> holderSets) {
+        HolderIdSet<T> result = null;
+        for (HolderSet<T> holderSet : holderSets) {
+            HolderIdSet<T> other = of(holderSet);
+            if (other == null) {
+                return null;
+            }
+            if (result == null) {
+                result = other;
+                continue;
+            }
+            if (commonOwner(result, other) == null && !result.isEmpty() && !other.isEmpty()) {
+                // Holders of different registries are compared by key, which bitsets cannot do
+                return null;
+            }
+            long[] words = Arrays.copyOf(result.words, Math.min(result.words.length, other.words.length));
+            for (int i = 0; i < words.length; i++) {
+                words[i] &= other.words[i];
+            }
+            result = new HolderIdSet<>(result.owner != null ? result.owner : other.owner, words);
+        }
+        return result == null ? new HolderIdSet<>(null, NO_WORDS) : result;
+    }
+
+    /**
+     * {@return the holders of the first bitset that are not part of the second bitset, or {@code null} if they belong to different registries}
+     */
+    @Nullable
+    static <T> HolderIdSet<T> difference(HolderIdSet<T> base, HolderIdSet<T> subtracted) {
+        if (base.isEmpty() || subtracted.isEmpty()) {
+            return base;
+        } else if (commonOwner(base, subtracted) == null) {
+            return null;
+        }
+        long[] words = base.words.clone();
+        for (int i = 0; i < Math.min(words.length, subtracted.words.length); i++) {
+            words[i] &= ~subtracted.words[i];
+        }
+        return new HolderIdSet<>(base.owner, words);
+    }
+
+    @Nullable
+    private static <T> HolderOwner<T> commonOwner(HolderIdSet<T> a, HolderIdSet<T> b) {
+        if (a.owner == null) {
+            return b.owner;
+        } else if (b.owner == null || a.owner == b.owner) {
+            return a.owner;
+        }
+        return null;
+    }
+
+    private boolean isEmpty() {
+        return owner == null;
+    }
+
+    /**
+     * Checks whether the given holder is part of this set.
+     *
+     * @return {@code TRUE} or {@code FALSE} if the holder could be tested, {@code null} if the holder belongs to another registry
+     */
+    @Nullable
+    Boolean contains(Holder<T> holder) {
+        if (!(holder.getDelegate() instanceof Holder.Reference<T> reference) || reference.registryId() < 0) {
+            return null;
+        }
+        if (owner != null && reference.owner() != owner) {
+            return null;
+        }
+        int id = reference.registryId();
+        return id >>> 6 < words.length && (words[id >>> 6] & 1L << id) != 0;
+    }
+}
@@ -55,6 +55,11 @@ public class NotHolderSet<T> implements ICustomHolderSet<T> {
     private final HolderSet<T> value;
     @Nullable
     private List<Holder<T>> list = null;
+    /**
+     * Bitset of the holders, which is not {@linkplain HolderIdSet#isSupported() supported} if they cannot be represented as one.
+     */
+    @Nullable
+    private HolderIdSet<T> idSet = null;
 
     public HolderLookup.RegistryLookup<T> registryLookup() {
         return this.registryLookup;
@@ -116,6 +121,13 @@ public class NotHolderSet<T> implements ICustomHolderSet<T> {
 
     @Override
     public boolean contains(Holder<T> holder) {
+        HolderIdSet<T> idSet = this.getIdSet();
+        if (idSet != null) {
+            Boolean contained = idSet.contains(holder);
+            if (contained != null) {
+                return contained;
+            }
+        }
         return !this.value.contains(holder);
     }
 
@@ -148,8 +160,30 @@ public class NotHolderSet<T> implements ICustomHolderSet<T> {
         }
     }
 
+    @Nullable
+    HolderIdSet<T> getIdSet() {
+        HolderIdSet<T> cached = this.idSet;
+        HolderIdSet<T> thisIdSet = HolderIdSet.getOrBuild(cached, this::createIdSet);
+        if (thisIdSet != cached) {
+            this.idSet = thisIdSet;
+        }
+        return thisIdSet.isSupported() ? thisIdSet : null;
+    }
+
+    @Nullable
+    private HolderIdSet<T> createIdSet() {
+        HolderIdSet<T> valueIdSet = HolderIdSet.of(this.value);
+        if (valueIdSet == null) {
+            return null;
+        }
+        Iterable<Holder<T>> registryHolders = this.registryLookup.listElements().<Holder<T>>map(holder -> holder)::iterator;
+        HolderIdSet<T> allIdSet = HolderIdSet.of(registryHolders);
+        return allIdSet == null ? null : HolderIdSet.difference(allIdSet, valueIdSet);
+    }
+
     private void invalidate() {
         this.list = null;
+        this.idSet = null;
         for (Runnable runnable : this.owners) {
             runnable.run();
         }
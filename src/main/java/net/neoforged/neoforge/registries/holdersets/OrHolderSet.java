@@ -52,6 +52,11 @@ public class OrHolderSet<T> extends CompositeHolderSet<T> {
         return this.getComponents().stream().flatMap(HolderSet::stream).collect(Collectors.toSet());
     }
 
+    @Override
+    HolderIdSet<T> createIdSet() {
+        return HolderIdSet.union(this.getComponents());
+    }
+
     @Override
     public String toString() {
         return "OrSet[" + this.getComponents() + "]";
@@ -9,22 +9,37 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import net.minecraft.Util;
 import net.minecraft.core.Holder;
+import net.minecraft.core.HolderSet;
+import net.minecraft.core.Registry;
 import net.minecraft.core.RegistryAccess;
 import net.minecraft.core.registries.Registries;
 import net.minecraft.gametest.framework.GameTestServer;
 import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.levelgen.structure.Structure;
 import net.minecraft.world.level.storage.LevelResource;
 import net.neoforged.fml.config.ConfigTracker;
 import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.loading.FMLEnvironment;
 import net.neoforged.fml.loading.FMLPaths;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.common.NeoForgeConfig;
 import net.neoforged.neoforge.common.util.LogicalSidedProvider;
 import net.neoforged.neoforge.common.world.BiomeModifier;
+import net.neoforged.neoforge.common.world.BiomeModifiers;
+import net.neoforged.neoforge.common.world.NoneBiomeModifier;
+import net.neoforged.neoforge.common.world.NoneStructureModifier;
 import net.neoforged.neoforge.common.world.StructureModifier;
+import net.neoforged.neoforge.common.world.StructureModifiers;
 import net.neoforged.neoforge.event.server.ServerAboutToStartEvent;
 import net.neoforged.neoforge.event.server.ServerStartedEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
@@ -34,7 +49,9 @@ import net.neoforged.neoforge.gametest.GameTestHooks;
 import net.neoforged.neoforge.registries.NeoForgeRegistries;
 import net.neoforged.neoforge.registries.NeoForgeRegistries.Keys;
 import net.neoforged.neoforge.registries.RegistryManager;
+import net.neoforged.neoforge.server.command.generation.GenerationJobs;
 import net.neoforged.neoforge.server.permission.PermissionAPI;
+import net.neoforged.neoforge.server.timings.TickProfiler;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.Marker;
@@ -91,11 +108,16 @@ public class ServerLifecycleHooks {
                 GameTestHooks.registerGametests();
         }
         PermissionAPI.initializePermissionAPI();
+        if (NeoForgeConfig.SERVER.enableTickProfiler.get()) {
+            TickProfiler.BLOCK_ENTITIES.enable(false);
+            TickProfiler.ENTITIES.enable(false);
+        }
         NeoForge.EVENT_BUS.post(new ServerStartingEvent(server));
     }
 
     public static void handleServerStarted(final MinecraftServer server) {
         NeoForge.EVENT_BUS.post(new ServerStartedEvent(server));
+        GenerationJobs.resume(server);
     }
 
     public static void handleServerStopping(final MinecraftServer server) {
@@ -109,6 +131,10 @@ public class ServerLifecycleHooks {
     public static void handleServerStopped(final MinecraftServer server) {
         if (!server.isDedicatedServer()) RegistryManager.revertToFrozen();
         NeoForge.EVENT_BUS.post(new ServerStoppedEvent(server));
+        TickProfiler.BLOCK_ENTITIES.disable();
+        TickProfiler.BLOCK_ENTITIES.reset();
+        TickProfiler.ENTITIES.disable();
+        TickProfiler.ENTITIES.reset();
         currentServer = null;
         LogicalSidedProvider.setServer(null);
         CountDownLatch latch = exitLatch;
@@ -142,18 +168,94 @@ public class ServerLifecycleHooks {
                 .map(Holder::value)
                 .toList();
 
+        // Modifiers from mods are not guaranteed to be thread-safe, so only NeoForge's own modifiers are applied in parallel
+        final boolean parallel = NeoForgeConfig.SERVER.parallelWorldgenModifiers.get();
+        final boolean parallelBiomes = parallel && areBuiltIn(biomeModifiers, BiomeModifiers.class, NoneBiomeModifier.class);
+        final boolean parallelStructures = parallel && areBuiltIn(structureModifiers, StructureModifiers.class, NoneStructureModifier.class);
+
         // Apply sorted biome modifiers to each biome.
-        registries.registryOrThrow(Registries.BIOME).holders().forEach(biomeHolder -> {
-            biomeHolder.value().modifiableBiomeInfo().applyBiomeModifiers(biomeHolder, biomeModifiers);
-        });
+        long start = System.nanoTime();
+        final Registry<Biome> biomes = registries.registryOrThrow(Registries.BIOME);
+        applyModifiers(biomes, biomeModifiers, BiomeModifier::targetBiomes, (biomeHolder, modifiers) -> {
+            biomeHolder.value().modifiableBiomeInfo().applyBiomeModifiers(biomeHolder, modifiers);
+        }, parallelBiomes);
+        LOGGER.info(SERVERHOOKS, "Applied {} biome modifiers to {} biomes in {} ms", biomeModifiers.size(), biomes.size(), (System.nanoTime() - start) / 1_000_000);
         // Rebuild the indexed feature list
         registries.registryOrThrow(Registries.LEVEL_STEM).forEach(levelStem -> {
             levelStem.generator().refreshFeaturesPerStep();
         });
 
         // Apply sorted structure modifiers to each structure.
-        registries.registryOrThrow(Registries.STRUCTURE).holders().forEach(structureHolder -> {
-            structureHolder.value().modifiableStructureInfo().applyStructureModifiers(structureHolder, structureModifiers);
-        });
+        start = System.nanoTime();
+        final Registry<Structure> structures = registries.registryOrThrow(Registries.STRUCTURE);
+        applyModifiers(structures, structureModifiers, StructureModifier::targetStructures, (structureHolder, modifiers) -> {
+            structureHolder.value().modifiableStructureInfo().applyStructureModifiers(structureHolder, modifiers);
+        }, parallelStructures);
+        LOGGER.info(SERVERHOOKS, "Applied {} structure modifiers to {} structures in {} ms", structureModifiers.size(), structures.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * {@return {@code true} if all the modifiers are NeoForge's built-in modifiers, which can safely be applied in parallel}
+     *
+     * @param builtIns the class declaring the built-in modifier records
+     * @param none     the class of the modifier that does nothing
+     */
+    private static boolean areBuiltIn(List<?> modifiers, Class<?> builtIns, Class<?> none) {
+        for (Object modifier : modifiers) {
+            Class<?> type = modifier.getClass();
+            if (type != none && type.getEnclosingClass() != builtIns) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Applies modifiers to every entry of a registry.
+     * Each entry only receives the modifiers that target it, in the order of the given list,
+     * so the result does not depend on whether the entries are modified in parallel.
+     *
+     * @param targets returns the entries targeted by a modifier, or {@code null} if it targets every entry
+     */
+    private static <T, M> void applyModifiers(Registry<T> registry, List<M> modifiers, Function<M, @Nullable HolderSet<T>> targets, BiConsumer<Holder<T>, List<M>> apply, boolean parallel) {
+        final int size = registry.size();
+        final List<List<M>> modifiersById = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            modifiersById.add(new ArrayList<>());
+        }
+        for (M modifier : modifiers) {
+            HolderSet<T> targetSet = targets.apply(modifier);
+            if (targetSet == null) {
+                modifiersById.forEach(entryModifiers -> entryModifiers.add(modifier));
+                continue;
+            }
+            for (Holder<T> target : targetSet) {
+                int id = registry.getId(target.value());
+                if (id < 0 || id >= size) {
+                    continue;
+                }
+                List<M> entryModifiers = modifiersById.get(id);
+                // Holder sets can contain an entry more than once
+                if (entryModifiers.isEmpty() || entryModifiers.get(entryModifiers.size() - 1) != modifier) {
+                    entryModifiers.add(modifier);
+                }
+            }
+        }
+
+        if (!parallel) {
+            registry.holders().forEach(holder -> apply.accept(holder, modifiersById.get(registry.getId(holder.value()))));
+            return;
+        }
+        try {
+            CompletableFuture.allOf(registry.holders()
+                    .map(holder -> CompletableFuture.runAsync(() -> apply.accept(holder, modifiersById.get(registry.getId(holder.value()))), Util.backgroundExecutor()))
+                    .toArray(CompletableFuture[]::new))
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
     }
 }
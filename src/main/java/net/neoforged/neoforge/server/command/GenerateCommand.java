@@ -19,6 +19,8 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.ChunkPos;
 import net.neoforged.neoforge.server.command.generation.GenerationBar;
+import net.neoforged.neoforge.server.command.generation.GenerationJob;
+import net.neoforged.neoforge.server.command.generation.GenerationJobs;
 import net.neoforged.neoforge.server.command.generation.GenerationTask;
 
 /**
@@ -26,9 +28,6 @@ import net.neoforged.neoforge.server.command.generation.GenerationTask;
  * Original code: <a href="https://github.com/jaskarth/fabric-chunkpregenerator">https://github.com/jaskarth/fabric-chunkpregenerator</a>
  */
 class GenerateCommand {
-    private static GenerationTask activeTask;
-    private static GenerationBar generationBar;
-
     static ArgumentBuilder<CommandSourceStack, ?> register() {
         LiteralArgumentBuilder<CommandSourceStack> builder = Commands.literal("generate").requires(cs -> cs.hasPermission(4)); //permission
 
@@ -42,6 +41,13 @@ class GenerateCommand {
         builder.then(Commands.literal("stop")
                 .executes(ctx -> stopGeneration(ctx.getSource())));
 
+        builder.then(Commands.literal("cancel")
+                .then(Commands.argument("job", IntegerArgumentType.integer(1))
+                        .executes(ctx -> cancelGeneration(ctx.getSource(), getInt(ctx, "job")))));
+
+        builder.then(Commands.literal("clear")
+                .executes(ctx -> clearQueuedGenerations(ctx.getSource())));
+
         builder.then(Commands.literal("status")
                 .executes(ctx -> getGenerationStatus(ctx.getSource())));
 
@@ -60,16 +66,12 @@ class GenerateCommand {
     }
 
     private static int executeGeneration(CommandSourceStack source, BlockPos pos, int chunkRadius, boolean progressBar) {
-        if (activeTask != null) {
-            source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.already_running"), true);
-            return Command.SINGLE_SUCCESS;
-        }
-
         ChunkPos origin = new ChunkPos(pos);
 
-        activeTask = new GenerationTask(source.getLevel(), origin.x, origin.z, chunkRadius);
+        GenerationJob job = new GenerationJob(source.getLevel().dimension(), origin.x, origin.z, chunkRadius);
         int diameter = chunkRadius * 2 + 1;
 
+        GenerationBar generationBar = null;
         if (progressBar) {
             generationBar = new GenerationBar();
 
@@ -78,27 +80,24 @@ class GenerateCommand {
             }
         }
 
-        source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.started",
-                activeTask.getTotalCount(), diameter, diameter, diameter * 16, diameter * 16), true);
-
-        activeTask.run(createPregenListener(source));
+        if (GenerationJobs.get(source.getServer()).enqueue(job, generationBar, createPregenListener(source))) {
+            source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.started",
+                    job.getTotalCount(), diameter, diameter, diameter * 16, diameter * 16), true);
+        } else {
+            source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.queued", job.getTotalCount()), true);
+        }
 
         return Command.SINGLE_SUCCESS;
     }
 
     private static int stopGeneration(CommandSourceStack source) {
-        if (activeTask != null) {
-            activeTask.stop();
-
-            int count = activeTask.getOkCount() + activeTask.getErrorCount() + activeTask.getSkippedCount();
-            int total = activeTask.getTotalCount();
+        GenerationJob job = GenerationJobs.get(source.getServer()).stop(source.getLevel().dimension());
+        if (job != null) {
+            int count = job.getProcessedCount();
+            int total = job.getTotalCount();
 
             double percent = (double) count / total * 100.0;
             source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.stopped", count, total, percent), true);
-
-            generationBar.close();
-            generationBar = null;
-            activeTask = null;
         } else {
             source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.not_running"), false);
         }
@@ -106,15 +105,43 @@ class GenerateCommand {
         return Command.SINGLE_SUCCESS;
     }
 
-    private static int getGenerationStatus(CommandSourceStack source) {
-        if (activeTask != null) {
-            int count = activeTask.getOkCount() + activeTask.getErrorCount() + activeTask.getSkippedCount();
-            int total = activeTask.getTotalCount();
+    private static int cancelGeneration(CommandSourceStack source, int number) {
+        GenerationJob job = GenerationJobs.get(source.getServer()).cancel(number - 1);
+        if (job != null) {
+            int count = job.getProcessedCount();
+            int total = job.getTotalCount();
 
             double percent = (double) count / total * 100.0;
-            source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.status", count, total, percent), true);
+            source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.cancelled", number, count, total, percent, job.getDimension().location().toString()), true);
         } else {
+            source.sendFailure(Component.translatable("commands.neoforge.chunkgen.no_such_job", number));
+        }
+
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static int clearQueuedGenerations(CommandSourceStack source) {
+        int removed = GenerationJobs.get(source.getServer()).clearQueue(source.getLevel().dimension());
+        source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.cleared", removed), true);
+        return removed;
+    }
+
+    private static int getGenerationStatus(CommandSourceStack source) {
+        var jobs = GenerationJobs.get(source.getServer()).getJobs();
+        if (jobs.isEmpty()) {
             source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.not_running"), false);
+            return Command.SINGLE_SUCCESS;
+        }
+
+        for (int i = 0; i < jobs.size(); i++) {
+            GenerationJob job = jobs.get(i);
+            int number = i + 1;
+            int count = job.getProcessedCount();
+            int total = job.getTotalCount();
+
+            double percent = (double) count / total * 100.0;
+            String key = job.isRunning() ? "commands.neoforge.chunkgen.status" : "commands.neoforge.chunkgen.status_queued";
+            source.sendSuccess(() -> Component.translatable(key, count, total, percent, job.getDimension().location().toString(), number), true);
         }
 
         return Command.SINGLE_SUCCESS;
@@ -128,25 +155,15 @@ class GenerateCommand {
     private static GenerationTask.Listener createPregenListener(CommandSourceStack source) {
         return new GenerationTask.Listener() {
             @Override
-            public void update(int ok, int error, int skipped, int total) {
-                if (generationBar != null) {
-                    generationBar.update(ok, error, skipped, total);
-                }
-            }
+            public void update(int ok, int error, int skipped, int total) {}
 
             @Override
             public void complete(int error) {
                 source.sendSuccess(() -> Component.translatable("commands.neoforge.chunkgen.success"), true);
 
                 if (error > 0) {
-                    source.sendFailure(Component.translatable("commands.neoforge.chunkgen.error"));
-                }
-
-                if (generationBar != null) {
-                    generationBar.close();
-                    generationBar = null;
+                    source.sendFailure(Component.translatable("commands.neoforge.chunkgen.error", error));
                 }
-                activeTask = null;
             }
         };
     }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.server.command;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.arguments.BoolArgumentType;
+import com.mojang.brigadier.builder.ArgumentBuilder;
+import com.mojang.logging.LogUtils;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.DecimalFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+import net.minecraft.ChatFormatting;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.ClickEvent;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.chat.MutableComponent;
+import net.neoforged.fml.loading.FMLLoader;
+import net.neoforged.neoforge.server.timings.TickProfiler;
+import net.neoforged.neoforge.server.timings.TimingHistogram;
+import org.slf4j.Logger;
+
+/**
+ * The {@code /neoforge profiler} command, to control the {@link TickProfiler}s and report their data.
+ */
+class ProfilerCommand {
+    private static final Logger LOGGER = LogUtils.getLogger();
+    private static final DecimalFormat TIME_FORMAT = new DecimalFormat("#####0.00");
+    private static final DateTimeFormatter FILE_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH.mm.ss");
+    private static final double[] PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final int MAX_REPORTED_TYPES = 10;
+
+    static ArgumentBuilder<CommandSourceStack, ?> register() {
+        return Commands.literal("profiler")
+                .requires(cs -> cs.hasPermission(Commands.LEVEL_GAMEMASTERS))
+                .then(Commands.literal("start")
+                        .then(startTarget("blockentity", TickProfiler.BLOCK_ENTITIES))
+                        .then(startTarget("entity", TickProfiler.ENTITIES)))
+                .then(forEachTarget("stop", profiler -> ctx -> {
+                    profiler.disable();
+                    ctx.getSource().sendSuccess(() -> Component.translatable("commands.neoforge.profiler.stopped", name(profiler)), true);
+                    return Command.SINGLE_SUCCESS;
+                }))
+                .then(forEachTarget("reset", profiler -> ctx -> {
+                    profiler.reset();
+                    ctx.getSource().sendSuccess(() -> Component.translatable("commands.neoforge.profiler.reset", name(profiler)), true);
+                    return Command.SINGLE_SUCCESS;
+                }))
+                .then(forEachTarget("types", profiler -> ctx -> reportTypes(ctx.getSource(), profiler)))
+                .then(forEachTarget("instances", profiler -> ctx -> reportInstances(ctx.getSource(), profiler)))
+                .then(Commands.literal("dump")
+                        .requires(cs -> cs.hasPermission(Commands.LEVEL_OWNERS))
+                        .executes(ctx -> dump(ctx.getSource())));
+    }
+
+    /**
+     * {@code /neoforge profiler start <target> [trackInstances]}
+     */
+    private static ArgumentBuilder<CommandSourceStack, ?> startTarget(String name, TickProfiler<?, ?> profiler) {
+        return Commands.literal(name)
+                .executes(ctx -> start(ctx.getSource(), profiler, false))
+                .then(Commands.argument("trackInstances", BoolArgumentType.bool())
+                        .executes(ctx -> start(ctx.getSource(), profiler, BoolArgumentType.getBool(ctx, "trackInstances"))));
+    }
+
+    /**
+     * {@code /neoforge profiler <name> <blockentity|entity>}
+     */
+    private static ArgumentBuilder<CommandSourceStack, ?> forEachTarget(String name, Function<TickProfiler<?, ?>, Command<CommandSourceStack>> command) {
+        return Commands.literal(name)
+                .then(Commands.literal("blockentity").executes(command.apply(TickProfiler.BLOCK_ENTITIES)))
+                .then(Commands.literal("entity").executes(command.apply(TickProfiler.ENTITIES)));
+    }
+
+    private static Component name(TickProfiler<?, ?> profiler) {
+        return Component.translatable(profiler == TickProfiler.ENTITIES ? "commands.neoforge.profiler.entity" : "commands.neoforge.profiler.blockentity");
+    }
+
+    private static int start(CommandSourceStack source, TickProfiler<?, ?> profiler, boolean trackInstances) {
+        profiler.enable(trackInstances);
+        source.sendSuccess(() -> Component.translatable("commands.neoforge.profiler.started", name(profiler)), true);
+        return Command.SINGLE_SUCCESS;
+    }
+
+    private static String formatNanos(double nanos) {
+        if (nanos >= 1_000_000) {
+            return TIME_FORMAT.format(nanos / 1_000_000) + "ms";
+        }
+        return TIME_FORMAT.format(nanos / 1_000) + "\u03bcs";
+    }
+
+    private static <K> int reportTypes(CommandSourceStack source, TickProfiler<?, K> profiler) {
+        var timings = profiler.getTypeTimings();
+        if (timings.isEmpty()) {
+            source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.no_data"), true);
+            return 0;
+        }
+
+        for (var entry : timings.subList(0, Math.min(MAX_REPORTED_TYPES, timings.size()))) {
+            var histogram = entry.histogram();
+            source.sendSuccess(() -> Component.translatable("commands.neoforge.profiler.type_entry",
+                    String.valueOf(profiler.getRegistry().getKey(entry.type())),
+                    histogram.getCount(),
+                    formatNanos(histogram.getMeanNanos()),
+                    formatNanos(histogram.getValueAtPercentile(50)),
+                    formatNanos(histogram.getValueAtPercentile(99)),
+                    formatNanos(histogram.getMaxNanos())), false);
+        }
+        return timings.size();
+    }
+
+    private static <K> int reportInstances(CommandSourceStack source, TickProfiler<?, K> profiler) {
+        var instances = profiler.getSlowestInstances();
+        if (instances.isEmpty()) {
+            source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.no_data"), true);
+            return 0;
+        }
+
+        for (var instance : instances) {
+            var pos = instance.pos();
+            source.sendSuccess(() -> Component.translatable("commands.neoforge.tracking.timing_entry",
+                    String.valueOf(profiler.getRegistry().getKey(instance.type())),
+                    instance.dimension().location().toString(),
+                    pos.getX(), pos.getY(), pos.getZ(),
+                    formatNanos(instance.nanos())), false);
+        }
+        return instances.size();
+    }
+
+    private static <K> JsonObject toJson(TickProfiler<?, K> profiler) {
+        var json = new JsonObject();
+        json.addProperty("enabled", profiler.isEnabled());
+        json.addProperty("enabled_seconds", profiler.getEnabledNanos() / 1_000_000_000.0);
+
+        var types = new JsonArray();
+        for (var entry : profiler.getTypeTimings()) {
+            TimingHistogram histogram = entry.histogram();
+            var typeJson = new JsonObject();
+            typeJson.addProperty("type", String.valueOf(profiler.getRegistry().getKey(entry.type())));
+            typeJson.addProperty("count", histogram.getCount());
+            typeJson.addProperty("total_ns", histogram.getTotalNanos());
+            typeJson.addProperty("mean_ns", histogram.getMeanNanos());
+            typeJson.addProperty("max_ns", histogram.getMaxNanos());
+            var percentiles = new JsonObject();
+            for (double percentile : PERCENTILES) {
+                percentiles.addProperty(String.valueOf(percentile), histogram.getValueAtPercentile(percentile));
+            }
+            typeJson.add("percentiles_ns", percentiles);
+            types.add(typeJson);
+        }
+        json.add("types", types);
+
+        var instances = new JsonArray();
+        for (var instance : profiler.getSlowestInstances()) {
+            var instanceJson = new JsonObject();
+            instanceJson.addProperty("type", String.valueOf(profiler.getRegistry().getKey(instance.type())));
+            instanceJson.addProperty("dimension", instance.dimension().location().toString());
+            instanceJson.addProperty("x", instance.pos().getX());
+            instanceJson.addProperty("y", instance.pos().getY());
+            instanceJson.addProperty("z", instance.pos().getZ());
+            instanceJson.addProperty("ns", instance.nanos());
+            instances.add(instanceJson);
+        }
+        json.add("slowest_instances", instances);
+        return json;
+    }
+
+    private static int dump(CommandSourceStack source) {
+        Path dumpFile = FMLLoader.getGamePath().resolve("dumps").resolve("profiler").resolve("tick-profile-" + LocalDateTime.now().format(FILE_DATE_FORMAT) + ".json");
+        try {
+            var json = new JsonObject();
+            json.add("block_entities", toJson(TickProfiler.BLOCK_ENTITIES));
+            json.add("entities", toJson(TickProfiler.ENTITIES));
+
+            Files.createDirectories(dumpFile.getParent());
+            Files.writeString(dumpFile, new GsonBuilder().setPrettyPrinting().create().toJson(json), StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            source.sendFailure(Component.translatable("commands.neoforge.profiler.dump.failure", dumpFile.toString()));
+            LOGGER.error("Failed to write tick profiler data to {}", dumpFile, e);
+            return 0;
+        }
+
+        MutableComponent filePathComponent = Component.literal("..." + FMLLoader.getGamePath().relativize(dumpFile))
+                .withStyle(ChatFormatting.UNDERLINE)
+                .withStyle(ChatFormatting.GOLD);
+
+        // Click action not allow on dedicated servers as client cannot click link to a server's file path.
+        if (!FMLLoader.getDist().isDedicatedServer()) {
+            filePathComponent.withStyle((style) -> style.withClickEvent(new ClickEvent(ClickEvent.Action.OPEN_FILE, dumpFile.toString())));
+        }
+
+        source.sendSuccess(() -> Component.translatable("commands.neoforge.profiler.dump.success", filePathComponent), false);
+        return Command.SINGLE_SUCCESS;
+    }
+}
@@ -44,6 +44,26 @@ public class CoarseOnionIterator extends AbstractIterator<ChunkPos> {
         return cell.next();
     }
 
+    /**
+     * Skips the given number of positions, without visiting the positions of whole cells one by one.
+     * This is used to resume an interrupted iteration, and must be called before the iterator is used.
+     */
+    public void skip(int count) {
+        OnionIterator cells = this.cells;
+        while (count > 0) {
+            CellIterator cell = this.cell;
+            if (cell == null || !cell.hasNext()) {
+                if (!cells.hasNext()) {
+                    return;
+                }
+
+                this.cell = cell = this.createCellIterator(cells.next());
+            }
+
+            count -= cell.skip(count);
+        }
+    }
+
     private CellIterator createCellIterator(ChunkPos pos) {
         int size = this.cellSize;
         int radius = this.radius;
@@ -59,6 +79,7 @@ public class CoarseOnionIterator extends AbstractIterator<ChunkPos> {
 
     private static final class CellIterator implements Iterator<ChunkPos> {
         private final int x0;
+        private final int z0;
         private final int x1;
         private final int z1;
 
@@ -69,6 +90,7 @@ public class CoarseOnionIterator extends AbstractIterator<ChunkPos> {
             this.x = x0;
             this.z = z0;
             this.x0 = x0;
+            this.z0 = z0;
             this.x1 = x1;
             this.z1 = z1;
         }
@@ -92,5 +114,26 @@ public class CoarseOnionIterator extends AbstractIterator<ChunkPos> {
 
             return pos;
         }
+
+        /**
+         * Skips up to {@code count} positions.
+         *
+         * @return the number of skipped positions
+         */
+        private int skip(int count) {
+            if (!this.hasNext()) {
+                return 0;
+            }
+
+            int width = this.x1 - this.x0 + 1;
+            int offset = (this.z - this.z0) * width + this.x - this.x0;
+            int remaining = (this.z1 - this.z0 + 1) * width - offset;
+            int skipped = Math.min(count, remaining);
+
+            offset += skipped;
+            this.x = this.x0 + offset % width;
+            this.z = this.z0 + offset / width;
+            return skipped;
+        }
     }
 }
@@ -6,6 +6,7 @@
 package net.neoforged.neoforge.server.command.generation;
 
 import java.text.DecimalFormat;
+import java.util.concurrent.TimeUnit;
 import net.minecraft.ChatFormatting;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.chat.MutableComponent;
@@ -20,9 +21,19 @@ import net.minecraft.world.BossEvent;
  */
 public class GenerationBar implements AutoCloseable {
     private static final DecimalFormat PERCENT_FORMAT = new DecimalFormat("#.00");
+    private static final DecimalFormat RATE_FORMAT = new DecimalFormat("#0.0");
+    private static final long RATE_SAMPLE_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /**
+     * Weight of the latest sample in the smoothed generation rate.
+     */
+    private static final double RATE_SMOOTHING = 0.3;
 
     private final ServerBossEvent bar;
 
+    private long lastSampleTime = -1;
+    private int lastSampleCount;
+    private double chunksPerSecond;
+
     public GenerationBar() {
         this.bar = new ServerBossEvent(Component.translatable("commands.neoforge.chunkgen.progress_bar_title"), BossEvent.BossBarColor.YELLOW, BossEvent.BossBarOverlay.PROGRESS);
         this.bar.setPlayBossMusic(false);
@@ -35,10 +46,16 @@ public class GenerationBar implements AutoCloseable {
 
         float percent = (float) count / total;
 
+        this.sampleRate(ok + error);
+
         MutableComponent title = Component.translatable("commands.neoforge.chunkgen.progress_bar_progress", total)
                 .append(Component.translatable(PERCENT_FORMAT.format(percent * 100.0F) + "%")
                         .setStyle(Style.EMPTY.withColor(ChatFormatting.GOLD)));
 
+        if (this.chunksPerSecond > 0) {
+            title = title.append(Component.translatable("commands.neoforge.chunkgen.progress_bar_rate", RATE_FORMAT.format(this.chunksPerSecond)));
+        }
+
         if (error > 0) {
             title = title.append(Component.translatable("commands.neoforge.chunkgen.progress_bar_errors")
                     .setStyle(Style.EMPTY.withColor(ChatFormatting.RED)));
@@ -48,6 +65,32 @@ public class GenerationBar implements AutoCloseable {
         this.bar.setProgress(percent);
     }
 
+    /**
+     * {@return the smoothed number of chunks that were generated per second, excluding skipped chunks}
+     */
+    public double getChunksPerSecond() {
+        return this.chunksPerSecond;
+    }
+
+    private void sampleRate(int generated) {
+        long now = System.nanoTime();
+        if (this.lastSampleTime < 0) {
+            this.lastSampleTime = now;
+            this.lastSampleCount = generated;
+            return;
+        }
+
+        long elapsed = now - this.lastSampleTime;
+        if (elapsed < RATE_SAMPLE_NANOS) {
+            return;
+        }
+
+        double rate = (double) (generated - this.lastSampleCount) * TimeUnit.SECONDS.toNanos(1) / elapsed;
+        this.chunksPerSecond = this.chunksPerSecond == 0 ? rate : this.chunksPerSecond + (rate - this.chunksPerSecond) * RATE_SMOOTHING;
+        this.lastSampleTime = now;
+        this.lastSampleCount = generated;
+    }
+
     public void addPlayer(ServerPlayer player) {
         this.bar.addPlayer(player);
     }
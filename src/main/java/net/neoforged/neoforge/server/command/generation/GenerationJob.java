@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.server.command.generation;
+
+import net.minecraft.core.registries.Registries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.level.Level;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A chunk generation job, that is persisted by {@link GenerationJobs} so that it can be resumed after a restart.
+ */
+public final class GenerationJob {
+    private final ResourceKey<Level> dimension;
+    private final int x;
+    private final int z;
+    private final int radius;
+    private GenerationTask.Progress progress;
+
+    @Nullable
+    GenerationTask task;
+    @Nullable
+    GenerationBar bar;
+    @Nullable
+    GenerationTask.Listener listener;
+
+    public GenerationJob(ResourceKey<Level> dimension, int x, int z, int radius) {
+        this(dimension, x, z, radius, GenerationTask.Progress.NONE);
+    }
+
+    private GenerationJob(ResourceKey<Level> dimension, int x, int z, int radius, GenerationTask.Progress progress) {
+        this.dimension = dimension;
+        this.x = x;
+        this.z = z;
+        this.radius = radius;
+        this.progress = progress;
+    }
+
+    public ResourceKey<Level> getDimension() {
+        return this.dimension;
+    }
+
+    public int getRadius() {
+        return this.radius;
+    }
+
+    public int getTotalCount() {
+        int diameter = this.radius * 2 + 1;
+        return diameter * diameter;
+    }
+
+    /**
+     * {@return the number of processed chunks, including the ones that were processed before the job was resumed}
+     */
+    public int getProcessedCount() {
+        if (this.task != null) {
+            return this.task.getOkCount() + this.task.getErrorCount() + this.task.getSkippedCount();
+        }
+        return this.progress.ok() + this.progress.error() + this.progress.skipped();
+    }
+
+    public boolean isRunning() {
+        return this.task != null;
+    }
+
+    /**
+     * {@return the progress to persist, taken from the running task if there is one}
+     */
+    GenerationTask.Progress getProgress() {
+        if (this.task != null) {
+            this.progress = this.task.getProgress();
+        }
+        return this.progress;
+    }
+
+    int getX() {
+        return this.x;
+    }
+
+    int getZ() {
+        return this.z;
+    }
+
+    CompoundTag save() {
+        GenerationTask.Progress progress = this.getProgress();
+        CompoundTag tag = new CompoundTag();
+        tag.putString("dimension", this.dimension.location().toString());
+        tag.putInt("x", this.x);
+        tag.putInt("z", this.z);
+        tag.putInt("radius", this.radius);
+        tag.putInt("cursor", progress.cursor());
+        tag.putInt("ok", progress.ok());
+        tag.putInt("error", progress.error());
+        tag.putInt("skipped", progress.skipped());
+        return tag;
+    }
+
+    @Nullable
+    static GenerationJob load(CompoundTag tag) {
+        ResourceLocation dimension = ResourceLocation.tryParse(tag.getString("dimension"));
+        if (dimension == null) {
+            return null;
+        }
+
+        GenerationTask.Progress progress = new GenerationTask.Progress(tag.getInt("cursor"), tag.getInt("ok"), tag.getInt("error"), tag.getInt("skipped"));
+        return new GenerationJob(ResourceKey.create(Registries.DIMENSION, dimension), tag.getInt("x"), tag.getInt("z"), tag.getInt("radius"), progress);
+    }
+}
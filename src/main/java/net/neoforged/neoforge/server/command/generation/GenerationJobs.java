@@ -0,0 +1,257 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.server.command.generation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.saveddata.SavedData;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The queue of {@link GenerationJob}s of a server, saved with the overworld so that the jobs are resumed when the server restarts.
+ *
+ * <p>At most one job runs in each dimension at the same time, the other jobs of the dimension wait in the order they were queued.
+ */
+@ApiStatus.Internal
+public class GenerationJobs extends SavedData {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private static final String NAME = "neoforge_generation_jobs";
+
+    private final MinecraftServer server;
+    private final List<GenerationJob> jobs = new ArrayList<>();
+
+    public static GenerationJobs get(MinecraftServer server) {
+        var factory = new SavedData.Factory<>(
+                () -> new GenerationJobs(server),
+                (tag, provider) -> new GenerationJobs(server, tag));
+        return server.overworld().getDataStorage().computeIfAbsent(factory, NAME);
+    }
+
+    /**
+     * Resumes the jobs that were queued when the server was last stopped.
+     */
+    public static void resume(MinecraftServer server) {
+        GenerationJobs jobs = get(server);
+        if (!jobs.jobs.isEmpty()) {
+            LOGGER.info("Resuming {} chunk generation job(s)", jobs.jobs.size());
+            jobs.startQueuedJobs();
+        }
+    }
+
+    private GenerationJobs(MinecraftServer server) {
+        this.server = server;
+    }
+
+    private GenerationJobs(MinecraftServer server, CompoundTag tag) {
+        this(server);
+
+        ListTag list = tag.getList("jobs", Tag.TAG_COMPOUND);
+        for (int i = 0; i < list.size(); i++) {
+            GenerationJob job = GenerationJob.load(list.getCompound(i));
+            if (job != null) {
+                this.jobs.add(job);
+            } else {
+                LOGGER.warn("Skipping invalid chunk generation job: {}", list.getCompound(i));
+            }
+        }
+    }
+
+    /**
+     * {@return all the jobs, running or waiting, in the order they were queued}
+     */
+    public List<GenerationJob> getJobs() {
+        return Collections.unmodifiableList(this.jobs);
+    }
+
+    @Nullable
+    public GenerationJob getRunningJob(ResourceKey<Level> dimension) {
+        for (GenerationJob job : this.jobs) {
+            if (job.isRunning() && job.getDimension() == dimension) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Queues a job, which starts right away unless another job is already running in the same dimension.
+     *
+     * @param bar      the progress bar to update while the job runs, which is closed when the job finishes
+     * @param listener a listener to notify while the job runs
+     * @return {@code true} if the job started right away
+     */
+    public boolean enqueue(GenerationJob job, @Nullable GenerationBar bar, @Nullable GenerationTask.Listener listener) {
+        job.bar = bar;
+        job.listener = listener;
+        this.jobs.add(job);
+        this.setDirty();
+
+        this.startQueuedJobs();
+        return job.isRunning();
+    }
+
+    /**
+     * Stops the job running in the given dimension and removes it from the queue, then starts the next queued job of the dimension.
+     *
+     * @return the stopped job, or {@code null} if no job was running in the dimension
+     */
+    @Nullable
+    public GenerationJob stop(ResourceKey<Level> dimension) {
+        GenerationJob job = this.getRunningJob(dimension);
+        if (job == null) {
+            return null;
+        }
+
+        job.task.stop();
+        closeBar(job);
+        this.jobs.remove(job);
+        this.setDirty();
+
+        this.startQueuedJobs();
+        return job;
+    }
+
+    /**
+     * Cancels a job, whether it is running or waiting, and removes it from the queue.
+     * If the job was running, the next queued job of its dimension starts.
+     *
+     * @param index the index of the job in {@link #getJobs()}
+     * @return the cancelled job, or {@code null} if there is no job at that index
+     */
+    @Nullable
+    public GenerationJob cancel(int index) {
+        if (index < 0 || index >= this.jobs.size()) {
+            return null;
+        }
+
+        GenerationJob job = this.jobs.remove(index);
+        if (job.isRunning()) {
+            job.task.stop();
+        }
+        closeBar(job);
+        this.setDirty();
+
+        this.startQueuedJobs();
+        return job;
+    }
+
+    /**
+     * Removes all the jobs waiting in the given dimension from the queue. The running job of the dimension is not stopped.
+     *
+     * @return the number of removed jobs
+     */
+    public int clearQueue(ResourceKey<Level> dimension) {
+        int removed = 0;
+        var iterator = this.jobs.iterator();
+        while (iterator.hasNext()) {
+            GenerationJob job = iterator.next();
+            if (!job.isRunning() && job.getDimension() == dimension) {
+                iterator.remove();
+                closeBar(job);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            this.setDirty();
+        }
+        return removed;
+    }
+
+    private void startQueuedJobs() {
+        Set<ResourceKey<Level>> busyDimensions = new HashSet<>();
+        for (GenerationJob job : this.jobs) {
+            if (job.isRunning()) {
+                busyDimensions.add(job.getDimension());
+            }
+        }
+
+        for (GenerationJob job : List.copyOf(this.jobs)) {
+            if (job.isRunning() || busyDimensions.contains(job.getDimension())) {
+                continue;
+            }
+
+            ServerLevel level = this.server.getLevel(job.getDimension());
+            if (level == null) {
+                LOGGER.warn("Removing chunk generation job for unknown dimension {}", job.getDimension().location());
+                this.jobs.remove(job);
+                this.setDirty();
+                continue;
+            }
+
+            busyDimensions.add(job.getDimension());
+            this.start(job, level);
+        }
+    }
+
+    private void start(GenerationJob job, ServerLevel level) {
+        GenerationTask task = new GenerationTask(level, job.getX(), job.getZ(), job.getRadius(), GenerationTask.getDefaultConcurrency(), job.getProgress());
+        job.task = task;
+
+        task.run(new GenerationTask.Listener() {
+            @Override
+            public void update(int ok, int error, int skipped, int total) {
+                if (job.bar != null) {
+                    job.bar.update(ok, error, skipped, total);
+                }
+                if (job.listener != null) {
+                    job.listener.update(ok, error, skipped, total);
+                }
+            }
+
+            @Override
+            public void complete(int error) {
+                GenerationJobs.this.jobs.remove(job);
+                GenerationJobs.this.setDirty();
+                closeBar(job);
+
+                if (job.listener != null) {
+                    job.listener.complete(error);
+                } else {
+                    LOGGER.info("Finished generating chunks in {} with {} error(s)", job.getDimension().location(), error);
+                }
+
+                GenerationJobs.this.startQueuedJobs();
+            }
+        });
+    }
+
+    private static void closeBar(GenerationJob job) {
+        if (job.bar != null) {
+            job.bar.close();
+            job.bar = null;
+        }
+    }
+
+    @Override
+    public CompoundTag save(CompoundTag tag, HolderLookup.Provider provider) {
+        ListTag list = new ListTag();
+        for (GenerationJob job : this.jobs) {
+            list.add(job.save());
+        }
+        tag.put("jobs", list);
+        return tag;
+    }
+
+    @Override
+    public boolean isDirty() {
+        // Running jobs keep making progress
+        return super.isDirty() || this.jobs.stream().anyMatch(GenerationJob::isRunning);
+    }
+}
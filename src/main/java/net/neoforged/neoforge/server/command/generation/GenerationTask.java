@@ -5,13 +5,18 @@
 
 package net.neoforged.neoforge.server.command.generation;
 
+import it.unimi.dsi.fastutil.ints.Int2ByteMap;
+import it.unimi.dsi.fastutil.ints.Int2ByteOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import it.unimi.dsi.fastutil.longs.LongList;
 import java.util.Comparator;
-import java.util.Iterator;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
-import net.minecraft.Util;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.StringTag;
 import net.minecraft.nbt.visitors.CollectFields;
@@ -27,6 +32,7 @@ import net.minecraft.server.level.TicketType;
 import net.minecraft.world.level.ChunkPos;
 import net.minecraft.world.level.chunk.ChunkAccess;
 import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.neoforged.neoforge.common.NeoForgeConfig;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -36,34 +42,78 @@ import org.apache.logging.log4j.Logger;
  */
 public class GenerationTask {
     private static final Logger LOGGER = LogManager.getLogger();
-    private static final int BATCH_SIZE = 32;
-    private static final int QUEUE_THRESHOLD = 8;
+    /**
+     * The number of chunks that are kept in flight per unit of concurrency.
+     */
+    private static final int CHUNKS_PER_WORKER = 8;
     private static final int COARSE_CELL_SIZE = 4;
 
+    private static final byte RESULT_OK = 0;
+    private static final byte RESULT_ERROR = 1;
+    private static final byte RESULT_SKIPPED = 2;
+
     private final MinecraftServer server;
     private final ServerChunkCache chunkSource;
     private final ServerLevel serverLevel;
 
-    private final Iterator<ChunkPos> iterator;
+    private final CoarseOnionIterator iterator;
     private final int x;
     private final int z;
     private final int radius;
 
     private final int totalCount;
-
-    private final Object queueLock = new Object();
+    private final int maxQueued;
+    private final int queueThreshold;
 
     private final AtomicInteger queuedCount = new AtomicInteger();
     private final AtomicInteger okCount = new AtomicInteger();
     private final AtomicInteger errorCount = new AtomicInteger();
     private final AtomicInteger skippedCount = new AtomicInteger();
 
+    /**
+     * Chunks that are being generated, grouped by region. Only accessed from the server thread.
+     */
+    private final Long2ObjectMap<RegionProgress> regions = new Long2ObjectOpenHashMap<>();
+    /**
+     * Whether a batch of chunks is being scanned for its generation status. Only accessed from the server thread.
+     */
+    private boolean scanning;
+
+    /**
+     * Index in the iteration order of the next chunk that will be collected. Only accessed from the server thread.
+     */
+    private int nextIndex;
+    /**
+     * Index of each queued chunk in the iteration order. Only accessed from the server thread.
+     */
+    private final Long2IntMap chunkIndices = new Long2IntOpenHashMap();
+    /**
+     * Results of the chunks that finished out of order, by index. Only accessed from the server thread.
+     */
+    private final Int2ByteMap outOfOrderResults = new Int2ByteOpenHashMap();
+    /**
+     * Progress up to the first chunk that has not finished yet, which is where the task can safely resume from.
+     */
+    private Progress resumableProgress;
+
     private volatile Listener listener;
     private volatile boolean stopped;
 
     public static final TicketType<ChunkPos> NEOFORGE_GENERATE_FORCED = TicketType.create("neoforge_generate_forced", Comparator.comparingLong(ChunkPos::toLong));
 
     public GenerationTask(ServerLevel serverLevel, int x, int z, int radius) {
+        this(serverLevel, x, z, radius, getDefaultConcurrency(), Progress.NONE);
+    }
+
+    /**
+     * @param concurrency how many chunks are generated at the same time, in multiples of {@value #CHUNKS_PER_WORKER} chunks
+     * @param progress    the progress of a previous run of the same task to resume from, as returned by {@link #getProgress()}
+     */
+    public GenerationTask(ServerLevel serverLevel, int x, int z, int radius, int concurrency, Progress progress) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+
         this.server = serverLevel.getServer();
         this.chunkSource = serverLevel.getChunkSource();
         this.serverLevel = serverLevel;
@@ -75,6 +125,25 @@ public class GenerationTask {
 
         int diameter = radius * 2 + 1;
         this.totalCount = diameter * diameter;
+
+        this.maxQueued = concurrency * CHUNKS_PER_WORKER;
+        // Scan the next batch while half of the current one is still generating, so that the generator never runs dry
+        this.queueThreshold = this.maxQueued / 2;
+
+        this.iterator.skip(progress.cursor());
+        this.nextIndex = progress.cursor();
+        this.okCount.set(progress.ok());
+        this.errorCount.set(progress.error());
+        this.skippedCount.set(progress.skipped());
+        this.resumableProgress = progress;
+    }
+
+    /**
+     * {@return the concurrency configured in {@link NeoForgeConfig.Server#chunkGenerationConcurrency}, or the number of available processors if it is not set}
+     */
+    public static int getDefaultConcurrency() {
+        int configured = NeoForgeConfig.SERVER.chunkGenerationConcurrency.get();
+        return configured > 0 ? configured : Runtime.getRuntime().availableProcessors();
     }
 
     public int getOkCount() {
@@ -93,6 +162,18 @@ public class GenerationTask {
         return this.totalCount;
     }
 
+    public ServerLevel getLevel() {
+        return this.serverLevel;
+    }
+
+    /**
+     * {@return the progress that can be passed to a new task to resume this one, only counting the chunks up to the first one that has not finished yet}
+     * Must be called from the server thread.
+     */
+    public Progress getProgress() {
+        return this.resumableProgress;
+    }
+
     public void run(Listener listener) {
         if (this.listener != null) {
             throw new IllegalStateException("already running!");
@@ -100,46 +181,72 @@ public class GenerationTask {
 
         this.listener = listener;
 
-        // Off thread chunk scanning to skip already generated chunks
-        CompletableFuture.runAsync(this::tryEnqueueTasks, Util.backgroundExecutor());
+        this.server.execute(this::tryEnqueueTasks);
     }
 
     public void stop() {
-        synchronized (this.queueLock) {
-            this.stopped = true;
-            this.listener = null;
-        }
+        this.stopped = true;
+        this.listener = null;
     }
 
     private void tryEnqueueTasks() {
-        synchronized (this.queueLock) {
-            if (this.stopped) {
-                return;
-            }
+        if (this.stopped || this.scanning) {
+            return;
+        }
 
-            int enqueueCount = BATCH_SIZE - this.queuedCount.get();
-            if (enqueueCount <= 0) {
-                return;
-            }
+        int enqueueCount = this.maxQueued - this.queuedCount.get();
+        if (enqueueCount <= 0) {
+            return;
+        }
 
-            LongList chunks = this.collectChunks(enqueueCount);
-            if (chunks.isEmpty()) {
-                this.listener.complete(this.errorCount.get());
-                this.stopped = true;
-                return;
-            }
+        int firstIndex = this.nextIndex;
+        LongList scannedChunks = this.collectChunks(enqueueCount);
+        if (scannedChunks.isEmpty()) {
+            this.checkCompletion();
+            return;
+        }
+        this.nextIndex += scannedChunks.size();
 
-            this.queuedCount.getAndAdd(chunks.size());
+        // Off thread chunk scanning to skip already generated chunks
+        this.scanning = true;
+        this.findGeneratedChunks(scannedChunks).whenComplete((generated, throwable) -> {
+            if (throwable != null) {
+                LOGGER.warn("Encountered unexpected error while scanning chunks, generating them anyway", throwable);
+            }
+            boolean[] skip = throwable == null ? generated : new boolean[scannedChunks.size()];
 
             // Keep on server thread as chunk acquiring and releasing (tickets) is not thread safe.
-            this.server.submit(() -> this.enqueueChunks(chunks));
-        }
+            this.server.execute(() -> this.enqueueChunks(firstIndex, scannedChunks, skip));
+        });
     }
 
-    private void enqueueChunks(LongList chunks) {
+    private void enqueueChunks(int firstIndex, LongList scannedChunks, boolean[] skip) {
+        this.scanning = false;
+        if (this.stopped) {
+            return;
+        }
+
+        LongList chunks = new LongArrayList(scannedChunks.size());
+        for (int i = 0; i < scannedChunks.size(); i++) {
+            if (skip[i]) {
+                this.skippedCount.getAndIncrement();
+                this.resolveIndex(firstIndex + i, RESULT_SKIPPED);
+            } else {
+                chunks.add(scannedChunks.getLong(i));
+                this.chunkIndices.put(scannedChunks.getLong(i), firstIndex + i);
+            }
+        }
+
+        if (chunks.size() < scannedChunks.size()) {
+            this.updateListener();
+        }
+
+        this.queuedCount.getAndAdd(chunks.size());
+
         for (int i = 0; i < chunks.size(); i++) {
             long chunk = chunks.getLong(i);
             this.acquireChunk(chunk);
+            this.regions.computeIfAbsent(getRegion(chunk), region -> new RegionProgress()).inFlight++;
         }
 
         // tick the chunk manager to force the ChunkHolders to be created
@@ -166,8 +273,16 @@ public class GenerationTask {
                 }
             }, runnable -> chunkMap.scheduleOnMainThreadMailbox(ChunkTaskPriorityQueueSorter.message(holder, runnable)));
         }
+
+        // If the whole batch was already generated, continue with the next one right away
+        if (this.queuedCount.get() <= this.queueThreshold) {
+            this.tryEnqueueTasks();
+        }
     }
 
+    /**
+     * Called on the server thread once a chunk finished generating.
+     */
     private void acceptChunkResult(long chunk, ChunkResult<ChunkAccess> result) {
         this.server.submit(() -> this.releaseChunk(chunk));
 
@@ -177,36 +292,83 @@ public class GenerationTask {
             this.errorCount.getAndIncrement();
         }
 
-        this.listener.update(this.okCount.get(), this.errorCount.get(), this.skippedCount.get(), this.totalCount);
+        if (this.chunkIndices.containsKey(chunk)) {
+            this.resolveIndex(this.chunkIndices.remove(chunk), result.isSuccess() ? RESULT_OK : RESULT_ERROR);
+        }
+
+        this.updateListener();
+
+        // Help make sure pregen progress does not get completely lost if game crashes/shuts down before pregen is finished.
+        long regionPos = getRegion(chunk);
+        RegionProgress region = this.regions.get(regionPos);
+        if (region != null) {
+            if (result.isSuccess()) {
+                region.generated.add(chunk);
+            }
+            if (--region.inFlight == 0) {
+                this.regions.remove(regionPos);
+                this.saveChunks(region.generated);
+            }
+        }
 
         int queuedCount = this.queuedCount.decrementAndGet();
-        if (queuedCount <= QUEUE_THRESHOLD) {
+        if (queuedCount <= this.queueThreshold) {
             this.tryEnqueueTasks();
         }
+        this.checkCompletion();
+    }
 
-        // Help make sure pregen progress does not get completely lost if game crashes/shuts down before pregen is finished.
-        if (((this.okCount.get() + this.errorCount.get()) % 1000) == 999) {
-            this.server.submit(() -> {
-                this.serverLevel.save(null, false, true);
-            });
+    /**
+     * Records the result of the chunk with the given index, and advances the resumable progress past every chunk that has finished in order.
+     */
+    private void resolveIndex(int index, byte result) {
+        this.outOfOrderResults.put(index, result);
+
+        Progress progress = this.resumableProgress;
+        int cursor = progress.cursor();
+        int ok = progress.ok();
+        int error = progress.error();
+        int skipped = progress.skipped();
+        while (this.outOfOrderResults.containsKey(cursor)) {
+            switch (this.outOfOrderResults.remove(cursor)) {
+                case RESULT_OK -> ok++;
+                case RESULT_ERROR -> error++;
+                default -> skipped++;
+            }
+            cursor++;
+        }
+
+        if (cursor != progress.cursor()) {
+            this.resumableProgress = new Progress(cursor, ok, error, skipped);
+        }
+    }
+
+    private void checkCompletion() {
+        if (this.stopped || this.scanning || this.queuedCount.get() > 0 || this.iterator.hasNext()) {
+            return;
+        }
+
+        Listener listener = this.listener;
+        this.stopped = true;
+        if (listener != null) {
+            listener.complete(this.errorCount.get());
+        }
+    }
+
+    private void updateListener() {
+        Listener listener = this.listener;
+        if (listener != null) {
+            listener.update(this.okCount.get(), this.errorCount.get(), this.skippedCount.get(), this.totalCount);
         }
     }
 
     private LongList collectChunks(int count) {
         LongList chunks = new LongArrayList(count);
 
-        Iterator<ChunkPos> iterator = this.iterator;
-        int i = 0;
-        while (i < count && iterator.hasNext()) {
+        CoarseOnionIterator iterator = this.iterator;
+        while (chunks.size() < count && iterator.hasNext()) {
             ChunkPos chunkPosInLocalSpace = iterator.next();
-            if (isChunkFullyGenerated(chunkPosInLocalSpace)) {
-                this.skippedCount.incrementAndGet();
-                this.listener.update(this.okCount.get(), this.errorCount.get(), this.skippedCount.get(), this.totalCount);
-                continue;
-            }
-
             chunks.add(ChunkPos.asLong(chunkPosInLocalSpace.x + this.x, chunkPosInLocalSpace.z + this.z));
-            i++;
         }
 
         return chunks;
@@ -222,11 +384,51 @@ public class GenerationTask {
         this.chunkSource.removeRegionTicket(NEOFORGE_GENERATE_FORCED, pos, 0, pos);
     }
 
-    private boolean isChunkFullyGenerated(ChunkPos chunkPosInLocalSpace) {
-        ChunkPos chunkPosInWorldSpace = new ChunkPos(chunkPosInLocalSpace.x + this.x, chunkPosInLocalSpace.z + this.z);
-        CollectFields collectFields = new CollectFields(new FieldSelector(StringTag.TYPE, "Status"));
-        this.chunkSource.chunkMap.chunkScanner().scanChunk(chunkPosInWorldSpace, collectFields).join();
+    /**
+     * Saves the given chunks if they are still loaded, instead of saving the whole level.
+     * Chunks that were unloaded in the meantime have already been saved when unloading.
+     */
+    private void saveChunks(LongList chunks) {
+        ChunkMap chunkMap = this.chunkSource.chunkMap;
+        for (int i = 0; i < chunks.size(); i++) {
+            ChunkHolder holder = chunkMap.getVisibleChunkIfPresent(chunks.getLong(i));
+            ChunkAccess chunk = holder != null ? holder.getLatestChunk() : null;
+            if (chunk != null) {
+                chunkMap.save(chunk);
+            }
+        }
+    }
+
+    /**
+     * Asynchronously scans the saved data of the given chunks, and returns for each chunk whether it is fully generated already.
+     * The scans are submitted region by region, so that the IO worker reads each region file in one go.
+     */
+    private CompletableFuture<boolean[]> findGeneratedChunks(LongList chunks) {
+        int[] order = new int[chunks.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        IntArrays.quickSort(order, (a, b) -> Long.compare(getRegion(chunks.getLong(a)), getRegion(chunks.getLong(b))));
+
+        CollectFields[] results = new CollectFields[chunks.size()];
+        CompletableFuture<?>[] scans = new CompletableFuture<?>[chunks.size()];
+        for (int i = 0; i < order.length; i++) {
+            int index = order[i];
+            CollectFields collectFields = new CollectFields(new FieldSelector(StringTag.TYPE, "Status"));
+            results[index] = collectFields;
+            scans[i] = this.chunkSource.chunkMap.chunkScanner().scanChunk(new ChunkPos(chunks.getLong(index)), collectFields);
+        }
 
+        return CompletableFuture.allOf(scans).thenApply(unused -> {
+            boolean[] generated = new boolean[results.length];
+            for (int i = 0; i < results.length; i++) {
+                generated[i] = isFullyGenerated(results[i]);
+            }
+            return generated;
+        });
+    }
+
+    private static boolean isFullyGenerated(CollectFields collectFields) {
         if (collectFields.getResult() instanceof CompoundTag compoundTag) {
             return compoundTag.getString("Status").equals("minecraft:full");
         }
@@ -234,6 +436,27 @@ public class GenerationTask {
         return false;
     }
 
+    private static long getRegion(long chunk) {
+        return ChunkPos.asLong(ChunkPos.getX(chunk) >> 5, ChunkPos.getZ(chunk) >> 5);
+    }
+
+    private static final class RegionProgress {
+        private final LongList generated = new LongArrayList();
+        private int inFlight;
+    }
+
+    /**
+     * The persistent progress of a task.
+     *
+     * @param cursor  the number of chunks in iteration order that have been processed
+     * @param ok      the number of chunks that were generated
+     * @param error   the number of chunks that failed to generate
+     * @param skipped the number of chunks that were already generated
+     */
+    public record Progress(int cursor, int ok, int error, int skipped) {
+        public static final Progress NONE = new Progress(0, 0, 0, 0);
+    }
+
     public interface Listener {
         void update(int ok, int error, int skipped, int total);
 
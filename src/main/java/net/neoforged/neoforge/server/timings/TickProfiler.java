@@ -0,0 +1,277 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.server.timings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.entity.BlockEntity;
+import net.minecraft.world.level.block.entity.BlockEntityType;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A low-overhead profiler for the tick times of ticking objects, aggregated per type.
+ *
+ * <p>Unlike {@link TimeTracker}, this profiler does not allocate anything per tick once warmed up,
+ * and can therefore be left enabled in production.
+ * Durations are recorded into a {@link TimingHistogram} per type.
+ * Optionally, the slowest individual ticks are kept along with the type and position of the ticked object.
+ *
+ * <p>Each recording thread gets its own set of histograms, which are merged when the data is queried.
+ *
+ * @param <T> type of the ticked objects
+ * @param <K> type of the registry entries used to aggregate the timings
+ */
+public final class TickProfiler<T, K> {
+    /**
+     * The number of slowest individual ticks that are kept when instance tracking is enabled.
+     */
+    public static final int TRACKED_INSTANCES = 10;
+
+    /**
+     * A profiler for block entity ticks, aggregated per {@link BlockEntityType}.
+     */
+    public static final TickProfiler<BlockEntity, BlockEntityType<?>> BLOCK_ENTITIES = new TickProfiler<>(BuiltInRegistries.BLOCK_ENTITY_TYPE, BlockEntity::getType, BlockEntity::getBlockPos, BlockEntity::getLevel);
+    /**
+     * A profiler for entity ticks, aggregated per {@link EntityType}.
+     */
+    public static final TickProfiler<Entity, EntityType<?>> ENTITIES = new TickProfiler<>(BuiltInRegistries.ENTITY_TYPE, Entity::getType, Entity::blockPosition, Entity::level);
+
+    private final Registry<K> registry;
+    private final Function<T, K> typeGetter;
+    private final Function<T, BlockPos> posGetter;
+    private final Function<T, @Nullable Level> levelGetter;
+    private final List<Recorder> recorders = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<Recorder> recorder = ThreadLocal.withInitial(() -> {
+        var recorder = new Recorder();
+        recorders.add(recorder);
+        return recorder;
+    });
+
+    private volatile boolean enabled;
+    private volatile boolean trackInstances;
+    private volatile long enabledSince;
+
+    private TickProfiler(Registry<K> registry, Function<T, K> typeGetter, Function<T, BlockPos> posGetter, Function<T, @Nullable Level> levelGetter) {
+        this.registry = registry;
+        this.typeGetter = typeGetter;
+        this.posGetter = posGetter;
+        this.levelGetter = levelGetter;
+    }
+
+    /**
+     * {@return the registry of the types used to aggregate the timings}
+     */
+    public Registry<K> getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Starts recording tick times, until {@link #disable()} is called.
+     *
+     * @param trackInstances whether the slowest individual ticks should be kept as well
+     */
+    public void enable(boolean trackInstances) {
+        this.trackInstances = trackInstances;
+        if (!enabled) {
+            this.enabledSince = System.nanoTime();
+            this.enabled = true;
+        }
+    }
+
+    /**
+     * Stops recording tick times. The recorded data is kept until {@link #reset()} is called.
+     */
+    public void disable() {
+        this.enabled = false;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * {@return the number of nanoseconds since the profiler was enabled, or 0 if it is disabled}
+     */
+    public long getEnabledNanos() {
+        return enabled ? System.nanoTime() - enabledSince : 0;
+    }
+
+    /**
+     * Clears all the recorded data.
+     */
+    public void reset() {
+        enabledSince = System.nanoTime();
+        for (var recorder : recorders) {
+            recorder.reset();
+        }
+    }
+
+    /**
+     * Marks the start of a tick.
+     *
+     * @return the value to pass to {@link #end}
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the end of a tick, and records its duration if the profiler was enabled when the tick started.
+     *
+     * @param object the ticked object
+     * @param start  the value returned by {@link #start()}
+     */
+    public void end(T object, long start) {
+        if (start == 0) {
+            return;
+        }
+        recorder.get().record(object, System.nanoTime() - start);
+    }
+
+    /**
+     * {@return the timings of every type that was ticked at least once, slowest total time first}
+     */
+    public List<TypeTimings<K>> getTypeTimings() {
+        var merged = new TimingHistogram[registry.size()];
+        for (var recorder : recorders) {
+            var histograms = recorder.histograms;
+            for (int id = 0; id < histograms.length && id < merged.length; ++id) {
+                if (histograms[id] != null) {
+                    if (merged[id] == null) {
+                        merged[id] = new TimingHistogram();
+                    }
+                    merged[id].add(histograms[id]);
+                }
+            }
+        }
+
+        List<TypeTimings<K>> ret = new ArrayList<>();
+        for (int id = 0; id < merged.length; ++id) {
+            if (merged[id] != null && merged[id].getCount() > 0) {
+                ret.add(new TypeTimings<>(registry.byIdOrThrow(id), merged[id]));
+            }
+        }
+        ret.sort(Comparator.comparingLong((TypeTimings<K> timings) -> timings.histogram().getTotalNanos()).reversed());
+        return ret;
+    }
+
+    /**
+     * {@return the slowest individual ticks that were recorded while instance tracking was enabled, slowest first}
+     */
+    public List<InstanceTiming<K>> getSlowestInstances() {
+        List<InstanceTiming<K>> ret = new ArrayList<>();
+        for (var recorder : recorders) {
+            for (int i = 0; i < TRACKED_INSTANCES; ++i) {
+                var dimension = recorder.instanceDimensions[i];
+                if (recorder.instanceNanos[i] > 0 && dimension != null) {
+                    ret.add(new InstanceTiming<>(registry.byIdOrThrow(recorder.instanceTypes[i]), dimension, BlockPos.of(recorder.instancePositions[i]), recorder.instanceNanos[i]));
+                }
+            }
+        }
+        ret.sort(Comparator.comparingLong((InstanceTiming<K> timing) -> timing.nanos()).reversed());
+        return ret.size() > TRACKED_INSTANCES ? ret.subList(0, TRACKED_INSTANCES) : ret;
+    }
+
+    /**
+     * Timings of all the ticked objects of a given type.
+     */
+    public record TypeTimings<K>(K type, TimingHistogram histogram) {}
+
+    /**
+     * Timing of a single tick of an object.
+     */
+    public record InstanceTiming<K>(K type, ResourceKey<Level> dimension, BlockPos pos, long nanos) {}
+
+    /**
+     * Data recorded by a single thread.
+     */
+    private final class Recorder {
+        private TimingHistogram[] histograms = new TimingHistogram[0];
+
+        // Slowest ticks, stored in parallel arrays to avoid allocations and to avoid keeping the objects alive
+        private final long[] instanceNanos = new long[TRACKED_INSTANCES];
+        private final int[] instanceTypes = new int[TRACKED_INSTANCES];
+        private final long[] instancePositions = new long[TRACKED_INSTANCES];
+        @SuppressWarnings("unchecked")
+        private final ResourceKey<Level>[] instanceDimensions = new ResourceKey[TRACKED_INSTANCES];
+        /**
+         * Index of the fastest tick in the arrays above, which is replaced first.
+         */
+        private int fastestInstance = 0;
+
+        private void record(T object, long nanos) {
+            int id = registry.getId(typeGetter.apply(object));
+            if (id < 0) {
+                return;
+            }
+            if (id >= histograms.length) {
+                histograms = Arrays.copyOf(histograms, Math.max(id + 1, registry.size()));
+            }
+            var histogram = histograms[id];
+            if (histogram == null) {
+                histogram = histograms[id] = new TimingHistogram();
+            }
+            histogram.record(nanos);
+
+            if (trackInstances && nanos > instanceNanos[fastestInstance]) {
+                recordInstance(object, id, nanos);
+            }
+        }
+
+        private void recordInstance(T object, int typeId, long nanos) {
+            var level = levelGetter.apply(object);
+            if (level == null) {
+                return;
+            }
+            long pos = posGetter.apply(object).asLong();
+
+            // Only keep the slowest tick of each object
+            int slot = fastestInstance;
+            for (int i = 0; i < TRACKED_INSTANCES; ++i) {
+                if (instancePositions[i] == pos && instanceTypes[i] == typeId && instanceDimensions[i] == level.dimension()) {
+                    if (nanos <= instanceNanos[i]) {
+                        return;
+                    }
+                    slot = i;
+                    break;
+                }
+            }
+
+            instanceNanos[slot] = nanos;
+            instanceTypes[slot] = typeId;
+            instancePositions[slot] = pos;
+            instanceDimensions[slot] = level.dimension();
+
+            for (int i = 0; i < TRACKED_INSTANCES; ++i) {
+                if (instanceNanos[i] < instanceNanos[fastestInstance]) {
+                    fastestInstance = i;
+                }
+            }
+        }
+
+        private void reset() {
+            for (var histogram : histograms) {
+                if (histogram != null) {
+                    histogram.reset();
+                }
+            }
+            Arrays.fill(instanceNanos, 0);
+            Arrays.fill(instanceDimensions, null);
+            fastestInstance = 0;
+        }
+    }
+}
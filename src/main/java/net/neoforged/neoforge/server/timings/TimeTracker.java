@@ -17,6 +17,8 @@ import net.minecraft.world.level.block.entity.BlockEntity;
 /**
  * A class to assist in the collection of data to measure the update times of ticking objects {currently Tile Entities and Entities}
  *
+ * <p>Tracking is enabled for a fixed duration, see {@link TickProfiler} for a profiler that can be left enabled.
+ *
  * @param <T>
  */
 public class TimeTracker<T> {
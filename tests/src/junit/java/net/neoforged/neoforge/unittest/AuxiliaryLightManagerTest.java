@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.unittest;
+
+import java.util.List;
+import java.util.Optional;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.neoforged.neoforge.common.world.LevelChunkAuxiliaryLightManager;
+import net.neoforged.neoforge.network.payload.AuxiliaryLightDataPayload;
+import net.neoforged.testframework.junit.EphemeralTestServerProvider;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(EphemeralTestServerProvider.class)
+public class AuxiliaryLightManagerTest {
+    private static final ChunkPos CHUNK_POS = new ChunkPos(0, 0);
+
+    private static LevelChunk createChunk(MinecraftServer server) {
+        return new LevelChunk(server.overworld(), CHUNK_POS);
+    }
+
+    private static CompoundTag legacyLight(BlockPos pos, int level) {
+        CompoundTag tag = new CompoundTag();
+        tag.putLong("pos", pos.asLong());
+        tag.putByte("level", (byte) level);
+        return tag;
+    }
+
+    @Test
+    void testLegacyFormat(MinecraftServer server) {
+        var chunk = createChunk(server);
+        var manager = new LevelChunkAuxiliaryLightManager(chunk);
+        ListTag list = new ListTag();
+        list.add(legacyLight(new BlockPos(1, 70, 2), 5));
+        list.add(legacyLight(new BlockPos(15, -64, 15), 15));
+        list.add(legacyLight(new BlockPos(3, 70, 3), 0));
+        manager.deserializeNBT(server.registryAccess(), list);
+
+        Assertions.assertThat(manager.getLightAt(new BlockPos(1, 70, 2))).isEqualTo(5);
+        Assertions.assertThat(manager.getLightAt(new BlockPos(15, -64, 15))).isEqualTo(15);
+        Assertions.assertThat(manager.getLightAt(new BlockPos(3, 70, 3))).isZero();
+        Assertions.assertThat(manager.getLightAt(new BlockPos(0, 70, 2))).isZero();
+
+        // The legacy format is converted to one entry per non-empty section
+        ListTag serialized = manager.serializeNBT(server.registryAccess());
+        Assertions.assertThat(serialized).hasSize(2);
+        var reloaded = new LevelChunkAuxiliaryLightManager(chunk);
+        reloaded.deserializeNBT(server.registryAccess(), serialized);
+        Assertions.assertThat(reloaded.getLightAt(new BlockPos(1, 70, 2))).isEqualTo(5);
+        Assertions.assertThat(reloaded.getLightAt(new BlockPos(15, -64, 15))).isEqualTo(15);
+    }
+
+    @Test
+    void testNibbleLayout(MinecraftServer server) {
+        var chunk = createChunk(server);
+        var manager = new LevelChunkAuxiliaryLightManager(chunk);
+        var even = new BlockPos(4, 70, 9);
+        var odd = even.east();
+        ListTag list = new ListTag();
+        list.add(legacyLight(even, 9));
+        list.add(legacyLight(odd, 5));
+        manager.deserializeNBT(server.registryAccess(), list);
+
+        ListTag serialized = manager.serializeNBT(server.registryAccess());
+        Assertions.assertThat(serialized).hasSize(1);
+        CompoundTag section = serialized.getCompound(0);
+        Assertions.assertThat(section.getInt("y")).isEqualTo(SectionPos.blockToSectionCoord(70));
+
+        // Same order as vanilla's DataLayer: y, then z, then x, with the lower nibble first
+        byte[] data = section.getByteArray("data");
+        Assertions.assertThat(data).hasSize(LevelChunkAuxiliaryLightManager.SECTION_DATA_SIZE);
+        int index = SectionPos.sectionRelative(even.getY()) << 8 | SectionPos.sectionRelative(even.getZ()) << 4 | SectionPos.sectionRelative(even.getX());
+        Assertions.assertThat(data[index >> 1]).isEqualTo((byte) (5 << 4 | 9));
+        for (int i = 0; i < data.length; i++) {
+            if (i != index >> 1) {
+                Assertions.assertThat(data[i]).as("byte %d", i).isZero();
+            }
+        }
+    }
+
+    @Test
+    void testMalformedSectionsAreSkipped(MinecraftServer server) {
+        var chunk = createChunk(server);
+        var manager = new LevelChunkAuxiliaryLightManager(chunk);
+        var pos = new BlockPos(0, 64, 0);
+        int sectionIndex = chunk.getSectionIndex(pos.getY());
+        byte[] valid = new byte[LevelChunkAuxiliaryLightManager.SECTION_DATA_SIZE];
+        valid[0] = 7;
+
+        manager.handleLightDataSync(new AuxiliaryLightDataPayload(CHUNK_POS, true, List.of(
+                new AuxiliaryLightDataPayload.Section(sectionIndex, Optional.of(valid)),
+                new AuxiliaryLightDataPayload.Section(sectionIndex + 1, Optional.of(new byte[16])),
+                new AuxiliaryLightDataPayload.Section(chunk.getSectionsCount(), Optional.of(valid.clone())))));
+
+        Assertions.assertThat(manager.getLightAt(pos)).isEqualTo(7);
+        Assertions.assertThat(manager.getLightAt(pos.above(16))).isZero();
+    }
+}
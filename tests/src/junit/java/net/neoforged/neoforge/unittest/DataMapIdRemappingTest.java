@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.unittest;
+
+import io.netty.buffer.Unpooled;
+import java.util.Map;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.Items;
+import net.neoforged.neoforge.registries.RegistryManager;
+import net.neoforged.neoforge.registries.RegistrySnapshot;
+import net.neoforged.neoforge.registries.datamaps.builtin.NeoForgeDataMaps;
+import net.neoforged.testframework.junit.EphemeralTestServerProvider;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(EphemeralTestServerProvider.class)
+public class DataMapIdRemappingTest {
+    private static RegistrySnapshot swapIds(RegistrySnapshot snapshot, Item first, Item second) {
+        var firstId = BuiltInRegistries.ITEM.getKey(first);
+        var secondId = BuiltInRegistries.ITEM.getKey(second);
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            buf.writeMap(snapshot.getIds(), FriendlyByteBuf::writeVarInt, (b, id) -> {
+                if (id.equals(firstId)) {
+                    b.writeResourceLocation(secondId);
+                } else if (id.equals(secondId)) {
+                    b.writeResourceLocation(firstId);
+                } else {
+                    b.writeResourceLocation(id);
+                }
+            });
+            buf.writeMap(snapshot.getAliases(), FriendlyByteBuf::writeResourceLocation, FriendlyByteBuf::writeResourceLocation);
+            return RegistrySnapshot.STREAM_CODEC.decode(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static void assertDataMatchesKeyLookup(Item item) {
+        var holder = item.builtInRegistryHolder();
+        Assertions.assertThat(holder.registryId()).isEqualTo(BuiltInRegistries.ITEM.getId(item));
+        Assertions.assertThat(holder.getData(NeoForgeDataMaps.COMPOSTABLES))
+                .isNotNull()
+                .isEqualTo(BuiltInRegistries.ITEM.getData(NeoForgeDataMaps.COMPOSTABLES, holder.key()));
+    }
+
+    @Test
+    void testHolderDataAfterRemapping(MinecraftServer server) {
+        ResourceLocation registryName = Registries.ITEM.location();
+        var original = new RegistrySnapshot(BuiltInRegistries.ITEM, false);
+        int wheatSeedsId = BuiltInRegistries.ITEM.getId(Items.WHEAT_SEEDS);
+        int cakeId = BuiltInRegistries.ITEM.getId(Items.CAKE);
+
+        // Build the dense data maps with the original IDs
+        assertDataMatchesKeyLookup(Items.WHEAT_SEEDS);
+        assertDataMatchesKeyLookup(Items.CAKE);
+
+        try {
+            RegistryManager.applySnapshot(Map.of(registryName, swapIds(original, Items.WHEAT_SEEDS, Items.CAKE)), false, false);
+
+            Assertions.assertThat(BuiltInRegistries.ITEM.getId(Items.WHEAT_SEEDS)).isEqualTo(cakeId);
+            Assertions.assertThat(BuiltInRegistries.ITEM.getId(Items.CAKE)).isEqualTo(wheatSeedsId);
+            assertDataMatchesKeyLookup(Items.WHEAT_SEEDS);
+            assertDataMatchesKeyLookup(Items.CAKE);
+        } finally {
+            RegistryManager.applySnapshot(Map.of(registryName, original), false, false);
+        }
+
+        assertDataMatchesKeyLookup(Items.WHEAT_SEEDS);
+        assertDataMatchesKeyLookup(Items.CAKE);
+    }
+}
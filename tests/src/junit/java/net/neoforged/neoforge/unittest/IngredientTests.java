@@ -58,6 +58,21 @@ public class IngredientTests {
                 .containsExactlyInAnyOrder(Items.BIRCH_LOG, Items.SPRUCE_LOG);
     }
 
+    @Test
+    void testIndexedIngredientMembership(MinecraftServer server) {
+        final var ingredient = DifferenceIngredient.of(
+                CompoundIngredient.of(Ingredient.of(ItemTags.LOGS), Ingredient.of(Items.DISPENSER)),
+                IntersectionIngredient.of(Ingredient.of(ItemTags.LOGS), Ingredient.of(Items.ACACIA_LOG, Items.STONE)));
+
+        Assertions.assertThat(ingredient.getMembershipIndex()).isNotNull();
+        Assertions.assertThat(ingredient.test(new ItemStack(Items.BIRCH_LOG))).isTrue();
+        Assertions.assertThat(ingredient.test(new ItemStack(Items.DISPENSER))).isTrue();
+        Assertions.assertThat(ingredient.test(new ItemStack(Items.ACACIA_LOG))).isFalse();
+        Assertions.assertThat(ingredient.test(new ItemStack(Items.STONE))).isFalse();
+        Assertions.assertThat(ingredient.test(ItemStack.EMPTY)).isFalse();
+        Assertions.assertThat(Ingredient.EMPTY.test(ItemStack.EMPTY)).isTrue();
+    }
+
     @ParameterizedTest
     @CsvSource({ "true", "false" })
     void testComponentIngredient(boolean strict, MinecraftServer server) {
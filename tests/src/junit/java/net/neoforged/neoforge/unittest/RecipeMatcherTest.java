@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) NeoForged and contributors
+ * SPDX-License-Identifier: LGPL-2.1-only
+ */
+
+package net.neoforged.neoforge.unittest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import net.neoforged.neoforge.common.util.RecipeMatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class RecipeMatcherTest {
+    private static final int ROUNDS = 200;
+
+    @Test
+    void mismatchedSizes() {
+        assertNull(RecipeMatcher.findMatches(List.of(1, 2), List.<Predicate<Integer>>of(i -> true)));
+    }
+
+    @Test
+    void empty() {
+        assertEquals(0, RecipeMatcher.findMatches(List.of(), List.of()).length);
+    }
+
+    @Test
+    void greedyChoiceIsRevised() {
+        // The first test accepts both inputs, but only the second input can satisfy the second test
+        List<Integer> inputs = List.of(0, 1);
+        List<Predicate<Integer>> tests = List.of(i -> true, i -> i == 0);
+        int[] matches = RecipeMatcher.findMatches(inputs, tests);
+        assertNotNull(matches);
+        assertEquals(1, matches[0]);
+        assertEquals(0, matches[1]);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 9, 16, 25, 70 })
+    void findsPerfectMatching(int size) {
+        var random = new Random(size);
+        for (int round = 0; round < ROUNDS; round++) {
+            var accepted = randomGraph(random, size, true);
+            List<Integer> inputs = IntStream.range(0, size).boxed().toList();
+            List<Predicate<Integer>> tests = new ArrayList<>();
+            for (boolean[] row : accepted) {
+                tests.add(i -> row[i]);
+            }
+
+            int[] matches = RecipeMatcher.findMatches(inputs, tests);
+            assertNotNull(matches);
+            assertEquals(size, matches.length);
+            var usedTests = new boolean[size];
+            for (int input = 0; input < size; input++) {
+                int test = matches[input];
+                assertTrue(accepted[test][input], "Input " + input + " was matched to a test that does not accept it");
+                assertFalse(usedTests[test], "Test " + test + " was matched twice");
+                usedTests[test] = true;
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 9, 16, 25 })
+    void rejectsImpossibleMatching(int size) {
+        var random = new Random(-size);
+        for (int round = 0; round < ROUNDS; round++) {
+            var accepted = randomGraph(random, size, false);
+            // Make three tests only accept the same two inputs, so that no perfect matching exists
+            // even though every test and every input has a candidate
+            for (int test = 0; test < 3; test++) {
+                for (int input = 0; input < size; input++) {
+                    accepted[test][input] = input < 2;
+                }
+            }
+            for (int input = 0; input < size; input++) {
+                accepted[3 + input % (size - 3)][input] = true;
+            }
+
+            List<Integer> inputs = IntStream.range(0, size).boxed().toList();
+            List<Predicate<Integer>> tests = new ArrayList<>();
+            for (boolean[] row : accepted) {
+                tests.add(i -> row[i]);
+            }
+            assertNull(RecipeMatcher.findMatches(inputs, tests));
+        }
+    }
+
+    @Test
+    void reentrantMatching() {
+        List<Integer> inner = List.of(0, 1, 2);
+        List<Predicate<Integer>> innerTests = List.of(i -> i != 0, i -> i == 0, i -> true);
+        List<Integer> inputs = List.of(0, 1);
+        List<Predicate<Integer>> tests = List.of(
+                i -> RecipeMatcher.findMatches(inner, innerTests) != null && i == 1,
+                i -> i == 0);
+        int[] matches = RecipeMatcher.findMatches(inputs, tests);
+        assertNotNull(matches);
+        assertEquals(1, matches[0]);
+        assertEquals(0, matches[1]);
+    }
+
+    /**
+     * Creates a random acceptance matrix, indexed by test then input.
+     *
+     * @param perfect whether to hide a random perfect matching in the graph
+     */
+    private static boolean[][] randomGraph(Random random, int size, boolean perfect) {
+        var accepted = new boolean[size][size];
+        if (perfect) {
+            List<Integer> permutation = new ArrayList<>(IntStream.range(0, size).boxed().toList());
+            Collections.shuffle(permutation, random);
+            for (int test = 0; test < size; test++) {
+                accepted[test][permutation.get(test)] = true;
+            }
+        }
+        for (int test = 0; test < size; test++) {
+            for (int input = 0; input < size; input++) {
+                if (random.nextInt(size) < 2) {
+                    accepted[test][input] = true;
+                }
+            }
+        }
+        return accepted;
+    }
+}
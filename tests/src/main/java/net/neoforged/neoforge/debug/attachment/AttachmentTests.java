@@ -126,4 +126,47 @@ public class AttachmentTests {
             helper.succeed();
         });
     }
+
+    @GameTest
+    @EmptyTemplate
+    @TestHolder(description = "Ensures that change-tracked attachments are only serialized again after they are marked dirty.")
+    static void trackedAttachmentSerialization(DynamicTest test, RegistrationHelper reg) {
+        class MutableIntHolder implements INBTSerializable<IntTag> {
+            private int value;
+
+            @Override
+            public IntTag serializeNBT(HolderLookup.Provider provider) {
+                return IntTag.valueOf(value);
+            }
+
+            @Override
+            public void deserializeNBT(HolderLookup.Provider provider, IntTag nbt) {
+                this.value = nbt.getAsInt();
+            }
+        }
+
+        var attachmentType = reg.attachments()
+                .register("tracked_int", () -> AttachmentType.serializable(MutableIntHolder::new).trackChanges().build());
+
+        test.onGameTest(helper -> {
+            var chunk = (LevelChunk) helper.getLevel().getChunk(helper.absolutePos(BlockPos.ZERO));
+            var provider = helper.getLevel().registryAccess();
+            var key = NeoForgeRegistries.ATTACHMENT_TYPES.getKey(attachmentType.get()).toString();
+
+            var attachment = new MutableIntHolder();
+            attachment.value = 1;
+            chunk.setData(attachmentType, attachment);
+            helper.assertTrue(chunk.writeAttachmentsToNBT(provider).getInt(key) == 1, "Attachment should have been serialized after setData");
+
+            // In-place modification without marking the attachment dirty keeps the previous serialized form
+            attachment.value = 2;
+            helper.assertTrue(chunk.writeAttachmentsToNBT(provider).getInt(key) == 1, "Attachment should not have been serialized again");
+
+            chunk.markDirty(attachmentType);
+            helper.assertTrue(chunk.writeAttachmentsToNBT(provider).getInt(key) == 2, "Attachment should have been serialized again after markDirty");
+
+            chunk.removeData(attachmentType);
+            helper.succeed();
+        });
+    }
 }
@@ -91,4 +91,46 @@ public class ItemInventoryTests {
             helper.succeed();
         });
     }
+
+    @GameTest
+    @EmptyTemplate
+    @TestHolder(description = "Tests that ComponentItemHandler batches write the component once on commit, and nothing when discarded")
+    public static void testBatchedItemInventory(DynamicTest test, RegistrationHelper reg) {
+        test.onGameTest(helper -> {
+            ItemStack stack = BACKPACK.toStack();
+            ComponentItemHandler items = new ComponentItemHandler(stack, DataComponents.CONTAINER, SLOTS);
+            ItemContainerContents contents = stack.get(DataComponents.CONTAINER);
+
+            try (var batch = items.beginBatch()) {
+                for (int i = 0; i < 10; i++) {
+                    items.insertItem(i, Items.APPLE.getDefaultInstance().copyWithCount(16), false);
+                }
+                items.extractItem(STICK_SLOT, 32, false);
+
+                helper.assertTrue(contents == stack.get(DataComponents.CONTAINER), "Modifications in a batch should not write the component before it is committed.");
+                helper.assertValueEqual(items.getStackInSlot(9).getCount(), 16, "Modifications in a batch should be visible via getStackInSlot");
+                // Discarded
+            }
+
+            helper.assertTrue(contents == stack.get(DataComponents.CONTAINER), "Closing a batch without committing it should not change the component.");
+            helper.assertTrue(items.getStackInSlot(0).isEmpty(), "Discarded modifications should not be visible via getStackInSlot");
+
+            try (var batch = items.beginBatch()) {
+                for (int i = 0; i < 10; i++) {
+                    items.insertItem(i, Items.APPLE.getDefaultInstance().copyWithCount(16), false);
+                }
+                items.extractItem(STICK_SLOT, 32, false);
+                batch.commit();
+            }
+
+            ItemContainerContents newContents = stack.get(DataComponents.CONTAINER);
+            helper.assertTrue(contents != newContents, "Committing a batch should write the component.");
+            for (int i = 0; i < 10; i++) {
+                helper.assertValueEqual(newContents.getStackInSlot(i).getCount(), 16, "Committed insertion at slot " + i);
+            }
+            helper.assertValueEqual(newContents.getStackInSlot(STICK_SLOT).getCount(), 32, "Committed extraction from the stick slot");
+
+            helper.succeed();
+        });
+    }
 }
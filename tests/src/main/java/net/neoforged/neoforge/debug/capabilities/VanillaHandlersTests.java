@@ -145,4 +145,36 @@ public class VanillaHandlersTests {
 
         helper.succeed();
     }
+
+    @GameTest
+    @EmptyTemplate
+    @TestHolder(description = "Tests that explicitly closed capability caches stop receiving invalidations")
+    public static void testTrackedCacheClose(ExtendedGameTestHelper helper) {
+        var composterPos = new BlockPos(1, 1, 1);
+
+        MutableInt invalidationCount = new MutableInt();
+        var capCache = BlockCapabilityCache.open(
+                Capabilities.ItemHandler.BLOCK,
+                helper.getLevel(),
+                helper.absolutePos(composterPos),
+                Direction.UP,
+                () -> true,
+                invalidationCount::increment);
+
+        helper.assertTrue(capCache.getCapability() == null, "Expected no capability");
+
+        helper.setBlock(composterPos, Blocks.COMPOSTER.defaultBlockState());
+        helper.assertTrue(invalidationCount.intValue() == 1, "Expected 1 invalidation");
+        helper.assertTrue(capCache.getCapability() != null, "Expected capability");
+
+        // After closing, the cache must not be notified anymore
+        capCache.close();
+        helper.setBlock(composterPos, Blocks.AIR.defaultBlockState());
+        helper.assertTrue(invalidationCount.intValue() == 1, "Expected no invalidation after closing the cache");
+
+        // Closing twice is fine
+        capCache.close();
+
+        helper.succeed();
+    }
 }